@@ -0,0 +1,86 @@
+package nonograms;
+
+/**
+ * BenchmarkSupport is a class not meant to be instantiated, but instead builds the Boards the benchmarks run against.
+ * Boards are named either after a field of TestBoards, or as RANDOM_size for a seeded random size x size Board, so the
+ * same name always gives the same puzzle.
+ *
+ * @author Ben Stone
+ */
+public class BenchmarkSupport {
+    // the prefix of the names of randomly generated Boards
+    static final String RANDOM = "RANDOM_";
+    // the chance of each Tile of a randomly generated Board being filled, which keeps them solvable by propagation
+    static final double RANDOM_DENSITY = 0.7;
+    // the seed every randomly generated Board is made from
+    static final long RANDOM_SEED = 42;
+
+    private BenchmarkSupport() {}
+
+    /**
+     * Builds a fresh Board with the given name, which shares no Clues with any other Board.
+     * @param name the name of a field of TestBoards, or RANDOM_size
+     * @return a new unsolved Board
+     * @throws IllegalArgumentException if there is no Board with the given name
+     */
+    static Board board(String name) throws IllegalArgumentException {
+        if (name.startsWith(RANDOM)) {
+            int size = Integer.parseInt(name.substring(RANDOM.length()));
+            return randomBoard(size, size, RANDOM_DENSITY, RANDOM_SEED);
+        }
+        switch (name) {
+            case "TEST4":
+                return copyOf(TestBoards.TEST4);
+            case "HI":
+                return copyOf(TestBoards.HI);
+            case "PUMPKIN":
+                return copyOf(TestBoards.PUMPKIN);
+            case "SNAIL":
+                return copyOf(TestBoards.SNAIL);
+            case "GOAT":
+                return copyOf(TestBoards.GOAT);
+            case "HOURGLASS":
+                return copyOf(TestBoards.HOURGLASS);
+            default:
+                throw new IllegalArgumentException("There is no Board named " + name + "!");
+        }
+    }
+
+    /**
+     * Builds a new Board with the same Clues as the given Board, so solving it leaves the given Board untouched.
+     * @param board a Board Object
+     * @return a new unsolved Board
+     */
+    static Board copyOf(Board board) {
+        return new Board(board.width(), board.height(), copyOf(board.getRowClues()), copyOf(board.getColClues()));
+    }
+
+    /**
+     * Builds a Board from a seeded random picture, where each Tile is filled with the given chance.
+     * @param width the number of columns
+     * @param height the number of rows
+     * @param density the chance of each Tile being filled
+     * @param seed the seed of the random picture
+     * @return a new unsolved Board whose Clues describe the picture
+     */
+    static Board randomBoard(int width, int height, double density, long seed) {
+        return PuzzleGenerator.boardFor(new PuzzleGenerator(width, height, density, seed).nextPicture());
+    }
+
+    /**
+     * @param clues an Array of Clues
+     * @return new Clues with the same numbers, none of which are checked
+     */
+    private static Clue[] copyOf(Clue[] clues) {
+        Clue[] copy = new Clue[clues.length];
+        for (int i = 0; i < clues.length; i++) {
+            NumberValue[] numbers = clues[i].getClue();
+            int[] values = new int[numbers.length];
+            for (int j = 0; j < numbers.length; j++) {
+                values[j] = numbers[j].getValue();
+            }
+            copy[i] = new Clue(values);
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,51 @@
+package nonograms;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures full solves of a Board by the brute force SolvingAlgorithms. These go through every combination of row
+ * solutions, so only the TestBoards are used rather than large generated Boards. Each solve runs on a new copy of
+ * the Board.
+ *
+ * @author Ben Stone
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BruteForceSolveBenchmark {
+    @Param({"TEST4", "PUMPKIN", "SNAIL", "GOAT", "HOURGLASS"})
+    public String board;
+
+    @Param({"BruteForce", "SmartBruteForce"})
+    public String algorithm;
+
+    // the unsolved Board every solve copies
+    private Board puzzle;
+
+    @Setup
+    public void setUp() {
+        puzzle = BenchmarkSupport.board(board);
+    }
+
+    @Benchmark
+    public boolean solve() {
+        Board copy = BenchmarkSupport.copyOf(puzzle);
+        BatchSolver.newAlgorithm(algorithm, copy).solve();
+        return copy.isSolved();
+    }
+}
@@ -0,0 +1,55 @@
+package nonograms;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures checking every row and every column of a solved Board against its Clues.
+ *
+ * @author Ben Stone
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CheckBenchmark {
+    @Param({"PUMPKIN", "GOAT", "HOURGLASS", "RANDOM_50", "RANDOM_100"})
+    public String board;
+
+    private Board puzzle;
+
+    @Setup
+    public void setUp() {
+        puzzle = BenchmarkSupport.board(board);
+        new ConstraintPropagationAlgorithm(puzzle).solve();
+    }
+
+    @Benchmark
+    public boolean checkRows() {
+        for (int r = 0; r < puzzle.height(); r++) {
+            puzzle.checkRow(r);
+        }
+        return puzzle.isSolved();
+    }
+
+    @Benchmark
+    public boolean checkCols() {
+        for (int c = 0; c < puzzle.width(); c++) {
+            puzzle.checkCol(c);
+        }
+        return puzzle.isSolved();
+    }
+}
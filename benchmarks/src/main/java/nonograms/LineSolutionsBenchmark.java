@@ -0,0 +1,75 @@
+package nonograms;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building every possible solution of each row of a Board, and filtering those solutions down with the
+ * overlaps of the rows and columns. Filtering edits the solutions in place, so it is measured on a fresh copy of them
+ * each time, and copySolutions measures the copy alone so it can be subtracted.
+ *
+ * @author Ben Stone
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LineSolutionsBenchmark {
+    @Param({"PUMPKIN", "GOAT", "HOURGLASS", "RANDOM_20", "RANDOM_30"})
+    public String board;
+
+    private Board puzzle;
+    private SmartBruteForceAlgorithm algorithm;
+    // every possible solution of each row, before filtering
+    private SolutionMatrix possibleSolutions;
+
+    @Setup
+    public void setUp() {
+        puzzle = BenchmarkSupport.board(board);
+        algorithm = new SmartBruteForceAlgorithm(puzzle);
+        possibleSolutions = algorithm.findAllPossibleSolutions(puzzle);
+    }
+
+    @Benchmark
+    public void findPossibleRowSolutions(Blackhole blackhole) {
+        for (Clue clue : puzzle.getRowClues()) {
+            blackhole.consume(algorithm.findPossibleRowSolutions(clue, puzzle.width()));
+        }
+    }
+
+    @Benchmark
+    public SolutionMatrix copySolutions() {
+        return copyOf(possibleSolutions);
+    }
+
+    @Benchmark
+    public SolutionMatrix removeImpossibleSolutions() {
+        return algorithm.removeImpossibleSolutions(copyOf(possibleSolutions));
+    }
+
+    /**
+     * @param solutions a SolutionMatrix Object
+     * @return a deep copy of solutions
+     */
+    private static SolutionMatrix copyOf(SolutionMatrix solutions) {
+        SolutionMatrix copy = new SolutionMatrix(solutions.size());
+        for (int i = 0; i < solutions.size(); i++) {
+            copy.add(new SolutionSet(solutions.get(i)));
+        }
+        return copy;
+    }
+}
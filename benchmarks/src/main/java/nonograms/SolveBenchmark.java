@@ -0,0 +1,50 @@
+package nonograms;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures full solves of a Board by the propagation based SolvingAlgorithms, from the TestBoards up to large
+ * generated Boards. Each solve runs on a new copy of the Board, which costs very little next to the solve itself.
+ *
+ * @author Ben Stone
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolveBenchmark {
+    @Param({"TEST4", "PUMPKIN", "SNAIL", "GOAT", "HOURGLASS", "RANDOM_30", "RANDOM_50", "RANDOM_100", "RANDOM_200"})
+    public String board;
+
+    @Param({"ConstraintPropagation", "ParallelSearch", "Backtracking", "Probing", "Sat"})
+    public String algorithm;
+
+    // the unsolved Board every solve copies
+    private Board puzzle;
+
+    @Setup
+    public void setUp() {
+        puzzle = BenchmarkSupport.board(board);
+    }
+
+    @Benchmark
+    public boolean solve() {
+        Board copy = BenchmarkSupport.copyOf(puzzle);
+        BatchSolver.newAlgorithm(algorithm, copy).solve();
+        return copy.isSolved();
+    }
+}
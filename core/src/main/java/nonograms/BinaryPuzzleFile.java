@@ -0,0 +1,239 @@
+package nonograms;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A BinaryPuzzleFile gives access to the Puzzles of a corpus file written by a BinaryPuzzleWriter. The whole file is
+ * memory mapped, so opening it costs the same however many Puzzles it holds, and fetching a Puzzle by its ID goes
+ * straight to its record through the index and decodes it from the mapped pages without copying them first.
+ *
+ * A BinaryPuzzleFile can be read from any number of threads at once. Corpus files must be under 2GB, the most a single
+ * mapping can hold. Only the header and index are checked when the file is opened, so a damaged record is only found
+ * when its Puzzle is fetched, which then fails with an UncheckedIOException saying what is wrong with it.
+ *
+ * @author Ben Stone
+ */
+public class BinaryPuzzleFile implements Closeable {
+    // the mapped file, which is only ever read through duplicates so threads do not share a position
+    private ByteBuffer mapped;
+    // the number of Puzzles in the file
+    private int count;
+    // the offset of the index in the file
+    private int indexOffset;
+    private FileChannel channel;
+
+    /**
+     * Opens and maps a corpus file.
+     * @param file the Path of a corpus file
+     * @throws IOException if the file cannot be read or is not a valid corpus file
+     */
+    public BinaryPuzzleFile(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(file + " is too large to be mapped!");
+            }
+            if (size < BinaryPuzzleWriter.HEADER_SIZE) {
+                throw new IOException(file + " is not a puzzle corpus!");
+            }
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+            if (mapped.getInt(0) != BinaryPuzzleWriter.MAGIC) {
+                throw new IOException(file + " is not a puzzle corpus!");
+            }
+            if (mapped.getInt(4) != BinaryPuzzleWriter.VERSION) {
+                throw new IOException(file + " is version " + mapped.getInt(4) + " of the format, which is not" +
+                        " supported!");
+            }
+            count = mapped.getInt(8);
+            long index = mapped.getLong(12);
+            if (count < 0 || index < BinaryPuzzleWriter.HEADER_SIZE || index + 8L * count > size) {
+                throw new IOException(file + " has a damaged index!");
+            }
+            indexOffset = (int) index;
+        }
+        catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the number of Puzzles in the file
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Fetches the Puzzle with the given ID.
+     * @param id an int ID of a Puzzle, from 0 up to size
+     * @return a new Puzzle with an unsolved Board
+     * @throws IndexOutOfBoundsException if id is not a valid ID
+     * @throws UncheckedIOException if the Puzzle's record is damaged
+     */
+    public Puzzle get(int id) throws IndexOutOfBoundsException, UncheckedIOException {
+        Record record = new Record(id);
+        Clue[] rowClues = record.readClues(record.height);
+        Clue[] colClues = record.readClues(record.width);
+        return new Puzzle(record.title, new Board(record.width, record.height, rowClues, colClues));
+    }
+
+    /**
+     * Fetches the solution of the Puzzle with the given ID.
+     * @param id an int ID of a Puzzle, from 0 up to size
+     * @return a BitGrid with every filled Tile of the solution filled and every other Tile slashed, or null if the
+     * Puzzle was written without a solution
+     * @throws IndexOutOfBoundsException if id is not a valid ID
+     * @throws UncheckedIOException if the Puzzle's record is damaged
+     */
+    public BitGrid getSolution(int id) throws IndexOutOfBoundsException, UncheckedIOException {
+        Record record = new Record(id);
+        // skip past the Clues
+        for (int i = record.height + record.width; i > 0; i--) {
+            for (int groups = record.readVarint(); groups > 0; groups--) {
+                record.readVarint();
+            }
+        }
+        record.require(1, "its solution flag");
+        if (record.buffer.get() == 0) {
+            return null;
+        }
+        record.require(((long) record.width * record.height + 7) / 8, "its solution");
+        BitGrid solution = new BitGrid(record.width, record.height);
+        int current = 0;
+        int bits = 8;
+        for (int r = 0; r < record.height; r++) {
+            for (int c = 0; c < record.width; c++) {
+                if (bits == 8) {
+                    current = record.buffer.get();
+                    bits = 0;
+                }
+                if ((current & (1 << bits++)) != 0) {
+                    solution.fill(r, c);
+                }
+                else solution.slash(r, c);
+            }
+        }
+        return solution;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * A Record reads the fields of one Puzzle's record in order, through its own view of the mapped file, which ends
+     * where the index starts. Every field is checked against what is left of the view before it is used, so a damaged
+     * record fails with an UncheckedIOException rather than with whatever decoding it happens to cause.
+     */
+    private class Record {
+        private int id;
+        private ByteBuffer buffer;
+        private int width, height;
+        private String title;
+
+        /**
+         * Positions a new Record at the start of a Puzzle's record and reads its dimensions and title.
+         * @param id an int ID of a Puzzle
+         * @throws IndexOutOfBoundsException if id is not a valid ID
+         * @throws UncheckedIOException if the record's offset, dimensions or title do not fit in the file
+         */
+        Record(int id) throws IndexOutOfBoundsException, UncheckedIOException {
+            if (id < 0 || id >= count) {
+                throw new IndexOutOfBoundsException(id + " is not a valid puzzle ID!");
+            }
+            this.id = id;
+            long offset = mapped.getLong(indexOffset + 8 * id);
+            if (offset < BinaryPuzzleWriter.HEADER_SIZE || offset >= indexOffset) {
+                throw damaged("its offset " + offset + " is outside of the records");
+            }
+            buffer = mapped.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+            buffer.limit(indexOffset);
+            buffer.position((int) offset);
+            width = readVarint();
+            height = readVarint();
+            int titleLength = readVarint();
+            require(titleLength, "its title");
+            byte[] titleBytes = new byte[titleLength];
+            buffer.get(titleBytes);
+            title = new String(titleBytes, StandardCharsets.UTF_8);
+            // every Clue takes at least one byte
+            require((long) width + height, "the Clues of a " + width + "x" + height + " Board");
+            if ((long) width * height > Integer.MAX_VALUE) {
+                throw damaged("a " + width + "x" + height + " Board has too many Tiles to hold");
+            }
+        }
+
+        /**
+         * Checks that a field fits in what is left of the record.
+         * @param bytes the number of bytes the field needs
+         * @param field what the field is, for the message
+         * @throws UncheckedIOException if fewer than bytes bytes are left
+         */
+        void require(long bytes, String field) throws UncheckedIOException {
+            if (bytes > buffer.remaining()) {
+                throw damaged(field + " needs " + bytes + " bytes but only " + buffer.remaining() + " are left");
+            }
+        }
+
+        /**
+         * @param reason what is wrong with the record
+         * @return an UncheckedIOException saying the record is damaged and why
+         */
+        UncheckedIOException damaged(String reason) {
+            String message = "Puzzle " + id + " has a damaged record, as " + reason + "!";
+            return new UncheckedIOException(message, new IOException(message));
+        }
+
+        /**
+         * @param number the number of Clues to read
+         * @return an Array of the Clues read
+         */
+        Clue[] readClues(int number) {
+            Clue[] clues = new Clue[number];
+            for (int i = 0; i < number; i++) {
+                int groups = readVarint();
+                // every number of a Clue takes at least one byte
+                require(groups, "Clue " + i + " of " + groups + " numbers");
+                // an empty Clue is the Clue of a lone zero
+                int[] lengths = groups == 0 ? new int[] {0} : new int[groups];
+                for (int j = 0; j < groups; j++) {
+                    lengths[j] = readVarint();
+                }
+                clues[i] = new Clue(lengths);
+            }
+            return clues;
+        }
+
+        /**
+         * @return the next variable length integer, which is never negative
+         * @throws UncheckedIOException if the integer runs past the end of the record or does not fit in an int
+         */
+        int readVarint() throws UncheckedIOException {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                require(1, "a number");
+                b = buffer.get();
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+                // an int never takes more than five bytes
+                if (value > Integer.MAX_VALUE || (shift >= 35 && (b & 0x80) != 0)) {
+                    throw damaged("a number is too large to be an int");
+                }
+            } while ((b & 0x80) != 0);
+            return (int) value;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package nonograms;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A BinaryPuzzleWriter writes Puzzles, and optionally their solutions, to a compact binary corpus file which a
+ * BinaryPuzzleFile can map into memory and fetch single Puzzles from by ID. The ID of a Puzzle is the number of
+ * Puzzles written before it.
+ *
+ * A corpus file starts with a header of the magic number, the format version, the number of Puzzles and the offset of
+ * the index, followed by one record per Puzzle and then the index, which holds the offset of every record as a long.
+ * Each record holds the width, height and title of its Puzzle, then the numbers of every row Clue followed by every
+ * column Clue, all as variable length integers. A record ends with a flag byte, followed by the solution packed eight
+ * Tiles to a byte, row by row, if the flag is set. Numbers which take more than one byte are little endian.
+ *
+ * @author Ben Stone
+ */
+public class BinaryPuzzleWriter implements Closeable {
+    // the first four bytes of every corpus file, "NONB"
+    static final int MAGIC = 0x4E4F4E42;
+    // the version of the format written
+    static final int VERSION = 1;
+    // the size of the header in bytes
+    static final int HEADER_SIZE = 20;
+
+    private FileChannel channel;
+    // the offset of each record written so far
+    private long[] offsets;
+    // the number of Puzzles written so far
+    private int count;
+    // the offset the next record will be written at
+    private long position;
+    // holds each record while it is being encoded
+    private ByteArrayOutputStream record;
+
+    /**
+     * Creates a corpus file, replacing any file already at the Path.
+     * @param file the Path of the corpus file
+     * @throws IOException if the file cannot be created
+     */
+    public BinaryPuzzleWriter(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        offsets = new long[16];
+        position = HEADER_SIZE;
+        record = new ByteArrayOutputStream();
+    }
+
+    /**
+     * Writes the given Puzzle without a solution.
+     * @param puzzle a Puzzle Object
+     * @return the ID of the Puzzle
+     * @throws IOException if the Puzzle cannot be written
+     */
+    public int write(Puzzle puzzle) throws IOException {
+        return write(puzzle, null);
+    }
+
+    /**
+     * Writes the given Puzzle along with its solution.
+     * @param puzzle a Puzzle Object
+     * @param solution the solution of the Puzzle, with the same dimensions as its Board, or null if it has none
+     * @return the ID of the Puzzle
+     * @throws IOException if the Puzzle cannot be written
+     * @throws IllegalArgumentException if the solution's dimensions do not match the Puzzle's Board
+     */
+    public int write(Puzzle puzzle, BitGrid solution) throws IOException, IllegalArgumentException {
+        Board board = puzzle.getBoard();
+        if (solution != null && (solution.width() != board.width() || solution.height() != board.height())) {
+            throw new IllegalArgumentException("The solution is not the same size as the puzzle!");
+        }
+        record.reset();
+        writeVarint(board.width());
+        writeVarint(board.height());
+        byte[] title = puzzle.getTitle().getBytes(StandardCharsets.UTF_8);
+        writeVarint(title.length);
+        record.write(title, 0, title.length);
+        for (Clue clue : board.getRowClues()) {
+            writeClue(clue);
+        }
+        for (Clue clue : board.getColClues()) {
+            writeClue(clue);
+        }
+        if (solution == null) {
+            record.write(0);
+        }
+        else {
+            record.write(1);
+            writeGrid(solution);
+        }
+        if (count == offsets.length) {
+            long[] grown = new long[2 * offsets.length];
+            System.arraycopy(offsets, 0, grown, 0, count);
+            offsets = grown;
+        }
+        offsets[count] = position;
+        position += writeFully(ByteBuffer.wrap(record.toByteArray()), position);
+        return count++;
+    }
+
+    /**
+     * Writes the index and header, finishing the file.
+     * @throws IOException if the file cannot be finished
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            ByteBuffer index = ByteBuffer.allocate(8 * count).order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < count; i++) {
+                index.putLong(offsets[i]);
+            }
+            index.flip();
+            long indexOffset = position;
+            writeFully(index, indexOffset);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(count).putLong(indexOffset);
+            header.flip();
+            writeFully(header, 0);
+        }
+        finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Writes the number of groups in the Clue, followed by the length of each group.
+     * @param clue a Clue Object
+     */
+    private void writeClue(Clue clue) {
+        int[] lengths = clue.getGroupLengths();
+        writeVarint(lengths.length);
+        for (int length : lengths) {
+            writeVarint(length);
+        }
+    }
+
+    /**
+     * Writes every Tile of the grid as one bit, set if the Tile is filled, row by row with eight Tiles to a byte.
+     * @param grid a BitGrid Object
+     */
+    private void writeGrid(BitGrid grid) {
+        int current = 0;
+        int bits = 0;
+        for (int r = 0; r < grid.height(); r++) {
+            for (int c = 0; c < grid.width(); c++) {
+                if (grid.isFilled(r, c)) {
+                    current |= 1 << bits;
+                }
+                if (++bits == 8) {
+                    record.write(current);
+                    current = 0;
+                    bits = 0;
+                }
+            }
+        }
+        if (bits > 0) {
+            record.write(current);
+        }
+    }
+
+    /**
+     * Writes a non-negative int seven bits at a time, lowest bits first, with the top bit of each byte set if more
+     * bytes follow.
+     * @param value a non-negative int
+     */
+    private void writeVarint(int value) {
+        while ((value & ~0x7F) != 0) {
+            record.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        record.write(value);
+    }
+
+    /**
+     * @param buffer the bytes to write
+     * @param offset the offset in the file to write them at
+     * @return the number of bytes written
+     * @throws IOException if the bytes cannot be written
+     */
+    private int writeFully(ByteBuffer buffer, long offset) throws IOException {
+        int written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer, offset + written);
+        }
+        return written;
+    }
+
+    /**
+     * Converts puzzle files in the .non or JSON lines formats into a single corpus file.
+     * @param args the Path of the corpus file, followed by the Paths of the puzzle files
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: BinaryPuzzleWriter corpus.nonb puzzle...");
+            System.exit(2);
+            return;
+        }
+        try (BinaryPuzzleWriter writer = new BinaryPuzzleWriter(Paths.get(args[0]))) {
+            for (int i = 1; i < args.length; i++) {
+                try (PuzzleReader reader = PuzzleReader.open(Paths.get(args[i]))) {
+                    Puzzle puzzle;
+                    while ((puzzle = reader.read()) != null) {
+                        writer.write(puzzle);
+                    }
+                }
+            }
+        }
+        catch (IOException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package nonograms;
+
+import java.util.Arrays;
+
+/**
+ * A BitGrid stores the state of every Tile of a Board as bits rather than as Tile objects. It holds two bit planes,
+ * one marking the filled Tiles and one marking the slashed Tiles, with any Tile in neither being empty. Each row of a
+ * plane is packed into longs, with the Tile in column c being bit c % 64 of word c / 64 of its row.
+ *
+ * Every plane is also kept transposed, with each column packed into longs the same way, so walking down a column reads
+ * consecutive words just like walking along a row does. All of the words of the row-major and column-major planes sit
+ * in one long array, so copying the whole grid is a single array copy, which makes taking a snapshot to come back to
+ * later nearly free.
+ *
+ * @author Ben Stone
+ */
+public class BitGrid {
+    // the number of bits in each word of the grid
+    static final int WORD_SIZE = 64;
+
+    // the filled and slashed planes, each height rows of wordsPerRow words, followed by the transposed filled and
+    // slashed planes, each width columns of wordsPerCol words
+    private long[] bits;
+    // the dimensions of the grid
+    private int width, height;
+    // the number of words in each row of a plane and in each column of a transposed plane
+    private int wordsPerRow, wordsPerCol;
+    // the index into bits of the first word of the slashed plane
+    private int slashedOffset;
+    // the indices into bits of the first words of the transposed filled and slashed planes
+    private int colFilledOffset, colSlashedOffset;
+
+    /**
+     * Creates a BitGrid of the given dimensions with every Tile empty.
+     * @param width the number of columns
+     * @param height the number of rows
+     */
+    public BitGrid(int width, int height) {
+        this.width = width;
+        this.height = height;
+        wordsPerRow = (width + WORD_SIZE - 1) / WORD_SIZE;
+        wordsPerCol = (height + WORD_SIZE - 1) / WORD_SIZE;
+        slashedOffset = height * wordsPerRow;
+        colFilledOffset = 2 * slashedOffset;
+        colSlashedOffset = colFilledOffset + width * wordsPerCol;
+        bits = new long[colSlashedOffset + width * wordsPerCol];
+    }
+
+    /**
+     * @return the number of columns in this BitGrid
+     */
+    public int width() {
+        return width;
+    }
+
+    /**
+     * @return the number of rows in this BitGrid
+     */
+    public int height() {
+        return height;
+    }
+
+    /**
+     * @param r an int row
+     * @param c an int column
+     * @return the state of the Tile at the row and column
+     */
+    public Tile.State getState(int r, int c) {
+        if (isFilled(r, c)) {
+            return Tile.State.FILLED;
+        }
+        return isSlashed(r, c) ? Tile.State.SLASHED : Tile.State.EMPTY;
+    }
+
+    /**
+     * Sets the state of the Tile at the given row and column.
+     * @param r an int row
+     * @param c an int column
+     * @param state the new state of the Tile
+     */
+    public void setState(int r, int c, Tile.State state) {
+        int index = wordIndex(r, c);
+        long bit = 1L << c;
+        bits[index] &= ~bit;
+        bits[slashedOffset + index] &= ~bit;
+        // keep the transposed planes in sync
+        int colIndex = colWordIndex(c, r);
+        long colBit = 1L << r;
+        bits[colFilledOffset + colIndex] &= ~colBit;
+        bits[colSlashedOffset + colIndex] &= ~colBit;
+        if (state == Tile.State.FILLED) {
+            bits[index] |= bit;
+            bits[colFilledOffset + colIndex] |= colBit;
+        }
+        else if (state == Tile.State.SLASHED) {
+            bits[slashedOffset + index] |= bit;
+            bits[colSlashedOffset + colIndex] |= colBit;
+        }
+    }
+
+    /**
+     * @param r an int row
+     * @param c an int column
+     * @return true if the Tile at the row and column is filled
+     */
+    public boolean isFilled(int r, int c) {
+        return (bits[wordIndex(r, c)] & (1L << c)) != 0;
+    }
+
+    /**
+     * @param r an int row
+     * @param c an int column
+     * @return true if the Tile at the row and column is slashed
+     */
+    public boolean isSlashed(int r, int c) {
+        return (bits[slashedOffset + wordIndex(r, c)] & (1L << c)) != 0;
+    }
+
+    /**
+     * @param r an int row
+     * @param c an int column
+     * @return true if the Tile at the row and column is empty
+     */
+    public boolean isEmpty(int r, int c) {
+        int index = wordIndex(r, c);
+        return ((bits[index] | bits[slashedOffset + index]) & (1L << c)) == 0;
+    }
+
+    /**
+     * Fills the Tile at the given row and column.
+     * @param r an int row
+     * @param c an int column
+     */
+    public void fill(int r, int c) {
+        setState(r, c, Tile.State.FILLED);
+    }
+
+    /**
+     * Slashes the Tile at the given row and column.
+     * @param r an int row
+     * @param c an int column
+     */
+    public void slash(int r, int c) {
+        setState(r, c, Tile.State.SLASHED);
+    }
+
+    /**
+     * Empties the Tile at the given row and column.
+     * @param r an int row
+     * @param c an int column
+     */
+    public void empty(int r, int c) {
+        setState(r, c, Tile.State.EMPTY);
+    }
+
+    /**
+     * @param r an int row
+     * @return a copy of the words of the filled plane for the row
+     */
+    public long[] getFilledRow(int r) {
+        return Arrays.copyOfRange(bits, r * wordsPerRow, (r + 1) * wordsPerRow);
+    }
+
+    /**
+     * @param r an int row
+     * @return a copy of the words of the slashed plane for the row
+     */
+    public long[] getSlashedRow(int r) {
+        return Arrays.copyOfRange(bits, slashedOffset + r * wordsPerRow, slashedOffset + (r + 1) * wordsPerRow);
+    }
+
+    /**
+     * @param c an int column
+     * @param r an int row
+     * @return true if the Tile at the row and column is filled
+     */
+    boolean isFilledInColumn(int c, int r) {
+        return (bits[colFilledOffset + colWordIndex(c, r)] & (1L << r)) != 0;
+    }
+
+    /**
+     * Reads a Tile from the transposed planes in place, so walking down a column reads consecutive words without
+     * copying anything.
+     * @param c an int column
+     * @param r an int row
+     * @return the state of the Tile at the row and column
+     */
+    Tile.State stateInColumn(int c, int r) {
+        int colIndex = colWordIndex(c, r);
+        long colBit = 1L << r;
+        if ((bits[colFilledOffset + colIndex] & colBit) != 0) {
+            return Tile.State.FILLED;
+        }
+        return (bits[colSlashedOffset + colIndex] & colBit) != 0 ? Tile.State.SLASHED : Tile.State.EMPTY;
+    }
+
+    /**
+     * @return a copy of every Tile's state, which can be handed back to restore
+     */
+    public long[] snapshot() {
+        return bits.clone();
+    }
+
+    /**
+     * Sets every Tile back to the state it had when the given snapshot was taken.
+     * @param snapshot an Array returned by snapshot on a BitGrid of the same dimensions
+     * @throws IllegalArgumentException if the snapshot is not the right size for this BitGrid
+     */
+    public void restore(long[] snapshot) throws IllegalArgumentException {
+        if (snapshot.length != bits.length) {
+            throw new IllegalArgumentException("The snapshot is not from a BitGrid of the same dimensions!");
+        }
+        System.arraycopy(snapshot, 0, bits, 0, bits.length);
+    }
+
+    /**
+     * @param r an int row
+     * @param c an int column
+     * @return the index into bits of the filled plane's word holding the Tile at the row and column
+     */
+    private int wordIndex(int r, int c) {
+        return r * wordsPerRow + c / WORD_SIZE;
+    }
+
+    /**
+     * @param c an int column
+     * @param r an int row
+     * @return the offset from the start of a transposed plane of the word holding the Tile at the row and column
+     */
+    private int colWordIndex(int c, int r) {
+        return c * wordsPerCol + r / WORD_SIZE;
+    }
+}
@@ -1,7 +1,9 @@
+package nonograms;
+
 /**
- * A Board object is a 2D Nonograms board of a specified size n by n. The Board object contains n Tile objects by n
- * Tile objects. The Board object also contains references to clues for both the rows and the columns in the Nonograms
- * puzzle the Board is displaying.
+ * A Board object is a 2D Nonograms board of a specified width by height. The Board object contains height rows of
+ * width Tiles each, stored packed into a BitGrid rather than as separate Tile objects. The Board object also contains
+ * references to clues for both the rows and the columns in the Nonograms puzzle the Board is displaying.
  *
  * The Board object has specific methods which can check the validity of a row or column based on that row or column's
  * Clue. For a row or column to be valid (correct) it must have all of the Clue's defined sections of filled Tiles
@@ -12,7 +14,7 @@
 
 public class Board {
     // the actual board
-    private Tile[][] board;
+    private BitGrid grid;
     // reference to clues for each respective row or column
     private Clue[] rowClues, colClues;
     // holds the number of Clues slashed
@@ -25,54 +27,81 @@ public class Board {
      * @param colClues the Clues for each col of this Board
      */
     public Board(int size, Clue[] rowClues, Clue[] colClues) {
-        board = new Tile[size][size];
+        this(size, size, rowClues, colClues);
+    }
+
+    /**
+     * Creates a Board object of dimensions width x height, creating default Tile objects for each location.
+     * @param width the number of columns of the Board
+     * @param height the number of rows of the Board
+     * @param rowClues the Clues for each row of this Board, one for each of the height rows
+     * @param colClues the Clues for each col of this Board, one for each of the width columns
+     * @throws IllegalArgumentException if the number of row or column Clues does not match the Board's dimensions
+     */
+    public Board(int width, int height, Clue[] rowClues, Clue[] colClues) throws IllegalArgumentException {
+        if (rowClues.length != height) {
+            throw new IllegalArgumentException(rowClues.length + " row Clues were given for " + height + " rows!");
+        }
+        if (colClues.length != width) {
+            throw new IllegalArgumentException(colClues.length + " column Clues were given for " + width +
+                    " columns!");
+        }
+        // all Tiles start out blank
+        grid = new BitGrid(width, height);
         this.rowClues = rowClues;
         this.colClues = colClues;
         numbersUnslashed = countNumbersInClues(rowClues, colClues);
-        // instantiate all Tiles as new blank tiles
-        for (int r = 0; r < board.length; r++) {
-            for (int c = 0; c < board[r].length; c++) {
-                board[r][c] = new Tile();
-            }
-        }
         checkForZeros();
     }
 
     /**
-     * @return this Board object's board
+     * @return an Array of Tiles which are views of this Board object's board, so changing them changes the Board
      */
     public Tile[][] getBoard() {
-        return board;
+        Tile[][] tiles = new Tile[height()][width()];
+        for (int r = 0; r < tiles.length; r++) {
+            for (int c = 0; c < tiles[r].length; c++) {
+                tiles[r][c] = new Tile(grid, r, c);
+            }
+        }
+        return tiles;
+    }
+
+    /**
+     * @return this Board object's board as a BitGrid
+     */
+    public BitGrid getGrid() {
+        return grid;
     }
 
     /**
      * Returns the Tile in the Board at the given indices.
      * @param row an int row
      * @param col an int col
-     * @return the Tile at the row and column
+     * @return a Tile which is a view of the row and column, so changing it changes the Board
      */
     public Tile getTile(int row, int col) throws IndexOutOfBoundsException {
-        if (row < 0 || row >= board.length) {
+        if (row < 0 || row >= height()) {
             throw new IndexOutOfBoundsException("Row " + row + " is not a valid row!");
         }
-        if (col < 0 || col >= board[row].length) {
+        if (col < 0 || col >= width()) {
             throw new IndexOutOfBoundsException("Column " + col + " is not a valid column!");
         }
-        return board[row][col];
+        return new Tile(grid, row, col);
     }
 
     /**
      * @return this Board's width
      */
     public int width() {
-        return board[0].length;
+        return grid.width();
     }
 
     /**
      * @return this Board's height
      */
     public int height() {
-        return board.length;
+        return grid.height();
     }
 
     /**
@@ -95,7 +124,7 @@ public class Board {
      * @param c int column
      */
     public void emptyTile(int r, int c) {
-        board[r][c].empty();
+        grid.empty(r, c);
     }
 
     /**
@@ -104,7 +133,7 @@ public class Board {
      * @param c int col
      */
     public void fillTile(int r, int c) {
-        board[r][c].fill();
+        grid.fill(r, c);
     }
 
     /**
@@ -113,7 +142,25 @@ public class Board {
      * @param c int col
      */
     public void slashTile(int r, int c) {
-        board[r][c].slash();
+        grid.slash(r, c);
+    }
+
+    /**
+     * Takes a copy of the state of every Tile in this Board, which is a single copy of the packed grid.
+     * @return a snapshot which can be handed back to restore
+     */
+    public long[] snapshot() {
+        return grid.snapshot();
+    }
+
+    /**
+     * Sets every Tile in this Board back to the state it had when the given snapshot was taken. The Clues are not
+     * checked again, so rows and columns should be checked afterwards if isSolved is to be trusted.
+     * @param snapshot an Array returned by snapshot on this Board
+     * @throws IllegalArgumentException if the snapshot is not from a Board of the same dimensions
+     */
+    public void restore(long[] snapshot) throws IllegalArgumentException {
+        grid.restore(snapshot);
     }
 
     /**
@@ -145,7 +192,7 @@ public class Board {
      */
     public void checkRow(int r) throws IndexOutOfBoundsException {
         // make sure r is a valid index
-        if (r >= board.length) {
+        if (r >= height()) {
             throw new IndexOutOfBoundsException("Row " + r + " is not a valid row in this board!");
         }
         uncheckRow(r);
@@ -178,26 +225,26 @@ public class Board {
         // holds the current count of tiles
         int currentCount = 0;
 
-        for (int i = 0; i < board[r].length; i++) {
-            Tile currentTile = board[r][i];
+        for (int i = 0; i < width(); i++) {
+            Tile.State currentTile = grid.getState(r, i);
 
             // if all the clues have been satisfied or passed
             if (currentClue < 0 || currentClue >= rowClue.size()) {
                 // if the tile is filled but not expected to be, uncheck all the Clues to let the user know there
                 // is an error
-                if (currentTile.isFilled()) {
+                if (currentTile == Tile.State.FILLED) {
                     uncheckRow(r);
                     return;
                 }
                 // move on if the tile is slashed
-                else if (currentTile.isSlashed()){
+                else if (currentTile == Tile.State.SLASHED){
                     continue;
                 }
                 else return;
             }
 
             // if current tile is filled, increment current count
-            if (currentTile.isFilled()) {
+            if (currentTile == Tile.State.FILLED) {
                 currentCount++;
             }
 
@@ -207,7 +254,7 @@ public class Board {
             if (currentCount == currentNumberValue.getValue()) {
                 // look to see if this is at the right end of the row or has an empty or slashed tile right after,
                 // which would denote the end of this grouping and means it is correct
-                if (i + 1 >= board[r].length || board[r][i + 1].isEmpty() || board[r][i + 1].isSlashed()) {
+                if (i + 1 >= width() || grid.isEmpty(r, i + 1) || grid.isSlashed(r, i + 1)) {
                     // if the current NumberValue has not been checked off yet
                     if (!currentNumberValue.isChecked()) {
                         // check off this clue
@@ -225,14 +272,14 @@ public class Board {
 
             // if the expected number of Tiles has not been met or has been exceeded but the current tile is empty
             // or slashed
-            if (currentCount > 0 && currentCount != currentNumberValue.getValue() && !currentTile.isFilled()) {
+            if (currentCount > 0 && currentCount != currentNumberValue.getValue() && currentTile != Tile.State.FILLED) {
                 // uncheck the clue if necessary
                 if (currentNumberValue.isChecked()) {
                     currentNumberValue.uncheck();
                     numbersUnslashed++;
                 }
                 // if the tile is slashed keep going
-                if (currentTile.isSlashed()) {
+                if (currentTile == Tile.State.SLASHED) {
                     // move to the next NumberValue in the Clue
                     currentClue++;
                     // reset number count
@@ -242,12 +289,12 @@ public class Board {
             }
 
             // if this is the last tile not empty but all the clues have not been met, uncheck all to alert user
-            if (i == board[r].length - 1 && currentClue < rowClue.size() && !currentTile.isEmpty()) {
+            if (i == width() - 1 && currentClue < rowClue.size() && currentTile != Tile.State.EMPTY) {
                 uncheckRow(r);
             }
 
             // end if this is an empty tile
-            if (currentTile.isEmpty()) {
+            if (currentTile == Tile.State.EMPTY) {
                 return;
             }
         }
@@ -265,26 +312,26 @@ public class Board {
         // holds the current count of tiles
         int currentCount = 0;
 
-        for (int i = board[r].length - 1; i >= 0; i--) {
-            Tile currentTile = board[r][i];
+        for (int i = width() - 1; i >= 0; i--) {
+            Tile.State currentTile = grid.getState(r, i);
 
             // if all the clues have been satisfied or passed
             if (currentClue < 0 || currentClue >= rowClue.size()) {
                 // if the tile is filled but not expected to be, uncheck all the Clues to let the user know there
                 // is an error
-                if (currentTile.isFilled()) {
+                if (currentTile == Tile.State.FILLED) {
                     uncheckRow(r);
                     return;
                 }
                 // move on if the tile is slashed
-                else if (currentTile.isSlashed()){
+                else if (currentTile == Tile.State.SLASHED){
                     continue;
                 }
                 else return;
             }
 
             // if current tile is filled, increment current count
-            if (currentTile.isFilled()) {
+            if (currentTile == Tile.State.FILLED) {
                 currentCount++;
             }
 
@@ -294,7 +341,7 @@ public class Board {
             if (currentCount == currentNumberValue.getValue()) {
                 // look to see if this is at the left end of the row or has an empty or slashed tile right after (to
                 // the left), which would denote the end of this grouping and means it is correct
-                if (i - 1 < 0 || board[r][i - 1].isEmpty() || board[r][i - 1].isSlashed()) {
+                if (i - 1 < 0 || grid.isEmpty(r, i - 1) || grid.isSlashed(r, i - 1)) {
                     // if the current NumberValue has not been checked off yet
                     if (!currentNumberValue.isChecked()) {
                         // check off this clue
@@ -312,14 +359,14 @@ public class Board {
 
             // if the expected number of Tiles has not been met or has been exceeded but the current tile is empty
             // or slashed
-            if (currentCount > 0 && currentCount != currentNumberValue.getValue() && !currentTile.isFilled()) {
+            if (currentCount > 0 && currentCount != currentNumberValue.getValue() && currentTile != Tile.State.FILLED) {
                 // uncheck the clue if necessary
                 if (currentNumberValue.isChecked()) {
                     currentNumberValue.uncheck();
                     numbersUnslashed++;
                 }
                 // if the tile is slashed keep going
-                if (currentTile.isSlashed()) {
+                if (currentTile == Tile.State.SLASHED) {
                     // move to the next NumberValue in the Clue
                     currentClue--;
                     // reset number count
@@ -329,12 +376,12 @@ public class Board {
             }
 
             // if this is the last tile not empty but all the clues have not been met, uncheck all to alert user
-            if (i == 0 && currentClue >= 0 && !currentTile.isEmpty()) {
+            if (i == 0 && currentClue >= 0 && currentTile != Tile.State.EMPTY) {
                 uncheckRow(r);
             }
 
             // end if this is an empty tile
-            if (currentTile.isEmpty()) {
+            if (currentTile == Tile.State.EMPTY) {
                 return;
             }
         }
@@ -347,7 +394,7 @@ public class Board {
      */
     public void checkCol(int r) throws IndexOutOfBoundsException {
         // make sure r is a valid index
-        if (r >= board.length) {
+        if (r >= width()) {
             throw new IndexOutOfBoundsException("Column " + r + " is not a valid column in this board!");
         }
         uncheckCol(r);
@@ -380,26 +427,26 @@ public class Board {
         // holds the current count of tiles
         int currentCount = 0;
 
-        for (int i = 0; i < board.length; i++) {
-            Tile currentTile = board[i][r];
+        for (int i = 0; i < height(); i++) {
+            Tile.State currentTile = grid.stateInColumn(r, i);
 
             // if all the clues have been satisfied or passed
             if (currentClue < 0 || currentClue >= colClue.size()) {
                 // if the tile is filled but not expected to be, uncheck all the Clues to let the user know there
                 // is an error
-                if (currentTile.isFilled()) {
+                if (currentTile == Tile.State.FILLED) {
                     uncheckCol(r);
                     return;
                 }
                 // move on if the tile is slashed
-                else if (currentTile.isSlashed()){
+                else if (currentTile == Tile.State.SLASHED){
                     continue;
                 }
                 else return;
             }
 
             // if current tile is filled, increment current count
-            if (currentTile.isEmpty()) {
+            if (currentTile == Tile.State.EMPTY) {
                 currentCount++;
             }
 
@@ -409,7 +456,7 @@ public class Board {
             if (currentCount == currentNumberValue.getValue()) {
                 // look to see if this is at the right end of the row or has an empty or slashed tile right after,
                 // which would denote the end of this grouping and means it is correct
-                if (i + 1 >= board.length || board[i + 1][r].isEmpty() || board[i + 1][r].isSlashed()) {
+                if (i + 1 >= height() || !grid.isFilledInColumn(r, i + 1)) {
                     // if the current NumberValue has not been checked off yet
                     if (!currentNumberValue.isChecked()) {
                         // check off this clue
@@ -426,14 +473,14 @@ public class Board {
 
             // if the expected number of Tiles has not been met or has been exceeded but the current tile is empty
             // or slashed
-            if (currentCount > 0 && currentCount != currentNumberValue.getValue() && !currentTile.isFilled()) {
+            if (currentCount > 0 && currentCount != currentNumberValue.getValue() && currentTile != Tile.State.FILLED) {
                 // uncheck the clue if necessary
                 if (currentNumberValue.isChecked()) {
                     currentNumberValue.uncheck();
                     numbersUnslashed++;
                 }
                 // if this is the last Tile
-                if (i == board.length - 1) {
+                if (i == height() - 1) {
                     // uncheck all from the first Clue to the currentClue
                     for (int j = 0; j <= currentClue; j++) {
                         if (colClue.getClue()[j].isChecked()) {
@@ -443,7 +490,7 @@ public class Board {
                     }
                 }
                 // if the tile is slashed keep going
-                if (currentTile.isSlashed()) {
+                if (currentTile == Tile.State.SLASHED) {
                     // move to the next NumberValue in the Clue
                     currentClue++;
                     // reset number count
@@ -453,12 +500,12 @@ public class Board {
             }
 
             // if this is the last tile not empty but all the clues have not been met, uncheck all to alert user
-            if (i == board.length - 1 && currentClue < colClue.size() && !currentTile.isEmpty()) {
+            if (i == height() - 1 && currentClue < colClue.size() && currentTile != Tile.State.EMPTY) {
                 uncheckCol(r);
             }
 
             // end if this is an empty tile
-            if (currentTile.isEmpty()) {
+            if (currentTile == Tile.State.EMPTY) {
                 return;
             }
         }
@@ -476,26 +523,26 @@ public class Board {
         // holds the current count of tiles
         int currentCount = 0;
 
-        for (int i = board.length - 1; i >= 0; i--) {
-            Tile currentTile = board[i][r];
+        for (int i = height() - 1; i >= 0; i--) {
+            Tile.State currentTile = grid.stateInColumn(r, i);
 
             // if all the clues have been satisfied or passed
             if (currentClue < 0 || currentClue >= colClue.size()) {
                 // if the tile is filled but not expected to be, uncheck all the Clues to let the user know there
                 // is an error
-                if (currentTile.isFilled()) {
+                if (currentTile == Tile.State.FILLED) {
                     uncheckCol(r);
                     return;
                 }
                 // move on if the tile is slashed
-                else if (currentTile.isSlashed()){
+                else if (currentTile == Tile.State.SLASHED){
                     continue;
                 }
                 else return;
             }
 
             // if current tile is filled, increment current count
-            if (currentTile.isFilled()) {
+            if (currentTile == Tile.State.FILLED) {
                 currentCount++;
             }
 
@@ -505,7 +552,7 @@ public class Board {
             if (currentCount == currentNumberValue.getValue()) {
                 // look to see if this is at the left end of the row or has an empty or slashed tile right after (to
                 // the left), which would denote the end of this grouping and means it is correct
-                if (i - 1 < 0 || board[i - 1][r].isEmpty() || board[i - 1][r].isSlashed()) {
+                if (i - 1 < 0 || !grid.isFilledInColumn(r, i - 1)) {
                     // if the current NumberValue has not been checked off yet
                     if (!currentNumberValue.isChecked()) {
                         // check off this clue
@@ -522,14 +569,14 @@ public class Board {
 
             // if the expected number of Tiles has not been met or has been exceeded but the current tile is empty
             // or slashed
-            if (currentCount > 0 && currentCount != currentNumberValue.getValue() && !currentTile.isFilled()) {
+            if (currentCount > 0 && currentCount != currentNumberValue.getValue() && currentTile != Tile.State.FILLED) {
                 // uncheck the clue if necessary
                 if (currentNumberValue.isChecked()) {
                     currentNumberValue.uncheck();
                     numbersUnslashed++;
                 }
                 // if the tile is slashed keep going
-                if (currentTile.isSlashed()) {
+                if (currentTile == Tile.State.SLASHED) {
                     // move to the next NumberValue in the Clue
                     currentClue--;
                     // reset number count
@@ -539,12 +586,12 @@ public class Board {
             }
 
             // if this is the last tile not empty but all the clues have not been met, uncheck all to alert user
-            if (i == 0 && currentClue >= 0 && !currentTile.isEmpty()) {
+            if (i == 0 && currentClue >= 0 && currentTile != Tile.State.EMPTY) {
                 uncheckCol(r);
             }
 
             // end if this is an empty tile
-            if (currentTile.isEmpty()) {
+            if (currentTile == Tile.State.EMPTY) {
                 return;
             }
         }
@@ -589,12 +636,12 @@ public class Board {
         // line return
         strBoard.append("\n");
         // go through all the rows in the board
-        for (int r = 0; r < board.length; r++) {
+        for (int r = 0; r < height(); r++) {
             // add the row's clue
             strBoard.append(rowClues[r] + "\t");
             // add the row's tiles
-            for (int c = 0; c < board[r].length; c++) {
-                strBoard.append(board[r][c] + "\t");
+            for (int c = 0; c < width(); c++) {
+                strBoard.append(new Tile(grid, r, c) + "\t");
             }
             // line return
             strBoard.append("\n");
@@ -1,3 +1,5 @@
+package nonograms;
+
 /**
  * A Clue object represents the number clues for a row or column, defined by the user when creating Nonogram puzzles.
  * A clue is defined in terms of an array, for example: [3, 5, 9]. In this example, there are 3 filled Tiles together,
@@ -41,6 +43,20 @@ public class Clue {
         return numbers;
     }
 
+    /**
+     * @return the lengths of the groups of filled Tiles this Clue describes, which is empty for a Clue of a lone zero
+     */
+    public int[] getGroupLengths() {
+        if (numbers.length == 1 && numbers[0].getValue() == 0) {
+            return new int[0];
+        }
+        int[] lengths = new int[numbers.length];
+        for (int i = 0; i < numbers.length; i++) {
+            lengths[i] = numbers[i].getValue();
+        }
+        return lengths;
+    }
+
     /**
      * @return the number of NumberValue Objects in this clue
      */
@@ -1,4 +1,4 @@
-import org.omg.Messaging.SYNC_WITH_TRANSPORT;
+package nonograms;
 
 /**
  * A NumberValue Object refers to a number within the row and column clues of the Board. The NumberValue Object keeps
@@ -0,0 +1,36 @@
+package nonograms;
+
+/**
+ * A Puzzle is a Board together with the title it was given in a puzzle file.
+ *
+ * @author Ben Stone
+ */
+public class Puzzle {
+    // the title of the Puzzle, which is never null
+    private String title;
+    private Board board;
+
+    /**
+     * Creates a Puzzle with the given title and Board.
+     * @param title the title of the Puzzle, or null for an untitled Puzzle
+     * @param board a Board Object
+     */
+    public Puzzle(String title, Board board) {
+        this.title = title == null ? "" : title;
+        this.board = board;
+    }
+
+    /**
+     * @return the title of this Puzzle, which is empty if it has none
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * @return this Puzzle's Board
+     */
+    public Board getBoard() {
+        return board;
+    }
+}
@@ -0,0 +1,528 @@
+package nonograms;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A PuzzleReader reads Puzzles one at a time from a file in either the .non format or as JSON lines, so a file of many
+ * thousands of Puzzles never has to be held in memory at once.
+ *
+ * A .non Puzzle gives its dimensions with width and height lines, followed by a rows section and a columns section with
+ * one Clue per line, its numbers separated by commas. For example, a 3x2 puzzle could look like:
+ *
+ * title "Example"
+ * width 3
+ * height 2
+ * rows
+ * 1,1
+ * 3
+ * columns
+ * 2
+ * 1
+ * 2
+ *
+ * Any other lines, such as an author or goal, are skipped over. A .non file may hold several Puzzles one after another,
+ * each one ending once both its rows and columns have been read.
+ *
+ * A JSON lines file holds one Puzzle per line as an object, for example:
+ * {"title":"Example","width":3,"height":2,"rows":[[1,1],[3]],"columns":[[2],[1],[2]]}
+ * where the title, width and height may be left out, and an empty row or column is written as [] or [0].
+ *
+ * @author Ben Stone
+ */
+public class PuzzleReader implements Closeable {
+    /**
+     * The formats Puzzles can be read and written in.
+     */
+    public enum Format {
+        NON,
+        JSON;
+
+        /**
+         * @param file the Path of a puzzle file
+         * @return JSON for a file ending in .json or .jsonl, NON for any other file
+         */
+        public static Format forFile(Path file) {
+            String name = file.getFileName().toString().toLowerCase();
+            if (name.endsWith(".json") || name.endsWith(".jsonl")) {
+                return JSON;
+            }
+            else return NON;
+        }
+    }
+
+    private BufferedReader in;
+    private Format format;
+    // the number of lines read so far, for error messages
+    private int lineNumber;
+
+    /**
+     * Creates a PuzzleReader which reads Puzzles in the given format.
+     * @param in a BufferedReader positioned at the start of the first Puzzle
+     * @param format the Format of the Puzzles
+     */
+    public PuzzleReader(BufferedReader in, Format format) {
+        this.in = in;
+        this.format = format;
+    }
+
+    /**
+     * Opens a puzzle file, working out its format from its name.
+     * @param file the Path of a puzzle file
+     * @return a PuzzleReader positioned at the start of the file
+     * @throws IOException if the file cannot be opened
+     */
+    public static PuzzleReader open(Path file) throws IOException {
+        return new PuzzleReader(Files.newBufferedReader(file, StandardCharsets.UTF_8), Format.forFile(file));
+    }
+
+    /**
+     * Reads the next Puzzle.
+     * @return the next Puzzle, or null if there are no more
+     * @throws IOException if the Puzzle cannot be read or is not valid
+     */
+    public Puzzle read() throws IOException {
+        if (format == Format.JSON) {
+            return readJson();
+        }
+        else return readNon();
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * @return the next Puzzle in the .non format, or null if there are no more
+     * @throws IOException if the Puzzle cannot be read or is not valid
+     */
+    private Puzzle readNon() throws IOException {
+        String title = null;
+        int width = -1;
+        int height = -1;
+        Clue[] rowClues = null;
+        Clue[] colClues = null;
+        // whether anything belonging to a Puzzle has been read yet
+        boolean started = false;
+        String line;
+        while ((rowClues == null || colClues == null) && (line = readLine()) != null) {
+            String[] words = line.trim().split("\\s+", 2);
+            switch (words[0]) {
+                case "title":
+                    title = words.length > 1 ? unquote(words[1].trim()) : "";
+                    break;
+                case "width":
+                    width = parseSize(words, width);
+                    break;
+                case "height":
+                    height = parseSize(words, height);
+                    break;
+                case "rows":
+                    if (height < 0) {
+                        throw error("The rows of the puzzle are given before its height!");
+                    }
+                    rowClues = readClues(height);
+                    break;
+                case "columns":
+                    if (width < 0) {
+                        throw error("The columns of the puzzle are given before its width!");
+                    }
+                    colClues = readClues(width);
+                    break;
+                default:
+                    // authors, goals and anything else do not affect the puzzle
+                    continue;
+            }
+            started = true;
+        }
+        if (!started) {
+            return null;
+        }
+        if (rowClues == null || colClues == null) {
+            throw error("The puzzle is missing its " + (rowClues == null ? "rows" : "columns") + "!");
+        }
+        return new Puzzle(title, new Board(width, height, rowClues, colClues));
+    }
+
+    /**
+     * @param words a width or height line split into the keyword and the rest
+     * @param current the size already given, or -1 if none has been
+     * @return the size given on the line
+     * @throws IOException if the size was already given, or is missing or not a positive number
+     */
+    private int parseSize(String[] words, int current) throws IOException {
+        if (current >= 0) {
+            throw error("The puzzle's " + words[0] + " is given twice!");
+        }
+        try {
+            int size = Integer.parseInt(words[1].trim());
+            if (size > 0) {
+                return size;
+            }
+        }
+        catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            // fall through to the error below
+        }
+        throw error("The puzzle's " + words[0] + " is not a positive number!");
+    }
+
+    /**
+     * Reads a section of Clues, one per line.
+     * @param count the number of Clues in the section
+     * @return an Array of the Clues read
+     * @throws IOException if the section ends early or a Clue is not valid
+     */
+    private Clue[] readClues(int count) throws IOException {
+        Clue[] clues = new Clue[count];
+        for (int i = 0; i < count; i++) {
+            String line = readLine();
+            if (line == null) {
+                throw error("The puzzle ended after " + i + " of its " + count + " Clues!");
+            }
+            clues[i] = parseClue(line);
+        }
+        return clues;
+    }
+
+    /**
+     * @param line the numbers of a Clue separated by commas, where a blank line is a Clue of a lone zero
+     * @return the Clue the line describes
+     * @throws IOException if any of the numbers is not valid
+     */
+    private Clue parseClue(String line) throws IOException {
+        String trimmed = line.trim();
+        if (trimmed.isEmpty()) {
+            return new Clue(new int[] {0});
+        }
+        String[] parts = trimmed.split("\\s*,\\s*|\\s+");
+        int[] numbers = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            try {
+                numbers[i] = Integer.parseInt(parts[i]);
+            }
+            catch (NumberFormatException e) {
+                numbers[i] = -1;
+            }
+            if (numbers[i] < 0) {
+                throw error("\"" + line + "\" is not a valid Clue!");
+            }
+        }
+        return new Clue(numbers);
+    }
+
+    /**
+     * @return the next Puzzle in the JSON lines format, or null if there are no more
+     * @throws IOException if the Puzzle cannot be read or is not valid
+     */
+    private Puzzle readJson() throws IOException {
+        String line;
+        do {
+            line = readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.trim().isEmpty());
+        Object parsed;
+        try {
+            parsed = new JsonParser(line).parseDocument();
+        }
+        catch (IllegalArgumentException e) {
+            throw error(e.getMessage());
+        }
+        if (!(parsed instanceof Map)) {
+            throw error("A puzzle must be a JSON object!");
+        }
+        Map<?, ?> object = (Map<?, ?>) parsed;
+        Clue[] rowClues = jsonClues(object.get("rows"), "rows");
+        Clue[] colClues = jsonClues(object.get("columns"), "columns");
+        Object title = object.get("title");
+        if (title != null && !(title instanceof String)) {
+            throw error("The puzzle's title must be a string!");
+        }
+        checkJsonSize(object.get("width"), colClues.length, "width");
+        checkJsonSize(object.get("height"), rowClues.length, "height");
+        return new Puzzle((String) title, new Board(colClues.length, rowClues.length, rowClues, colClues));
+    }
+
+    /**
+     * @param value the value of a rows or columns member
+     * @param name the name of the member
+     * @return the Clues it describes
+     * @throws IOException if the value is not an array of arrays of whole numbers
+     */
+    private Clue[] jsonClues(Object value, String name) throws IOException {
+        if (!(value instanceof List) || ((List<?>) value).isEmpty()) {
+            throw error("The puzzle's " + name + " must be a non-empty array!");
+        }
+        List<?> lines = (List<?>) value;
+        Clue[] clues = new Clue[lines.size()];
+        for (int i = 0; i < clues.length; i++) {
+            if (!(lines.get(i) instanceof List)) {
+                throw error("Each of the puzzle's " + name + " must be an array of numbers!");
+            }
+            List<?> numbers = (List<?>) lines.get(i);
+            // an empty line is the Clue of a lone zero
+            int[] values = numbers.isEmpty() ? new int[] {0} : new int[numbers.size()];
+            for (int j = 0; j < numbers.size(); j++) {
+                Object number = numbers.get(j);
+                if (!(number instanceof Long) || (Long) number < 0 || (Long) number > Integer.MAX_VALUE) {
+                    throw error("Each of the puzzle's " + name + " must be an array of numbers!");
+                }
+                values[j] = ((Long) number).intValue();
+            }
+            clues[i] = new Clue(values);
+        }
+        return clues;
+    }
+
+    /**
+     * @param value the value of a width or height member, or null if there is none
+     * @param expected the number of Clues given for that dimension
+     * @param name the name of the member
+     * @throws IOException if the size is given and does not match the number of Clues
+     */
+    private void checkJsonSize(Object value, int expected, String name) throws IOException {
+        if (value != null && !(value instanceof Long && (Long) value == expected)) {
+            throw error("The puzzle's " + name + " does not match its " + expected + " Clues!");
+        }
+    }
+
+    /**
+     * @return the next line, or null at the end of the file
+     * @throws IOException if the line cannot be read
+     */
+    private String readLine() throws IOException {
+        String line = in.readLine();
+        if (line != null) {
+            lineNumber++;
+        }
+        return line;
+    }
+
+    /**
+     * @param message what is wrong with the puzzle
+     * @return an IOException for the message, giving the line it was found on
+     */
+    private IOException error(String message) {
+        return new IOException("Line " + lineNumber + ": " + message);
+    }
+
+    /**
+     * @param value a String which may be wrapped in double quotes
+     * @return value without the quotes
+     */
+    private static String unquote(String value) {
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            return value.substring(1, value.length() - 1);
+        }
+        else return value;
+    }
+
+    /**
+     * A JsonParser turns a single line of JSON into Maps, Lists, Strings, Longs, Doubles, Booleans and nulls. It only
+     * needs to be as fast as reading the line it parses.
+     */
+    private static class JsonParser {
+        private String text;
+        // the index of the next character to be parsed
+        private int index;
+
+        JsonParser(String text) {
+            this.text = text;
+        }
+
+        /**
+         * @return the value the whole of the text describes
+         * @throws IllegalArgumentException if the text is not a single JSON value
+         */
+        Object parseDocument() throws IllegalArgumentException {
+            Object value = parseValue();
+            skipWhitespace();
+            if (index < text.length()) {
+                throw new IllegalArgumentException("Unexpected " + text.charAt(index) + " after the puzzle!");
+            }
+            return value;
+        }
+
+        private Object parseValue() throws IllegalArgumentException {
+            skipWhitespace();
+            if (index >= text.length()) {
+                throw new IllegalArgumentException("The line ended in the middle of the puzzle!");
+            }
+            char ch = text.charAt(index);
+            switch (ch) {
+                case '{':
+                    return parseObject();
+                case '[':
+                    return parseArray();
+                case '"':
+                    return parseString();
+                case 't':
+                    return parseLiteral("true", Boolean.TRUE);
+                case 'f':
+                    return parseLiteral("false", Boolean.FALSE);
+                case 'n':
+                    return parseLiteral("null", null);
+                default:
+                    return parseNumber();
+            }
+        }
+
+        private Map<String, Object> parseObject() throws IllegalArgumentException {
+            Map<String, Object> object = new LinkedHashMap<>();
+            index++;
+            skipWhitespace();
+            if (peek() == '}') {
+                index++;
+                return object;
+            }
+            while (true) {
+                skipWhitespace();
+                if (peek() != '"') {
+                    throw new IllegalArgumentException("Expected the name of a member at column " + (index + 1) + "!");
+                }
+                String name = parseString();
+                skipWhitespace();
+                expect(':');
+                object.put(name, parseValue());
+                skipWhitespace();
+                if (peek() == ',') {
+                    index++;
+                }
+                else {
+                    expect('}');
+                    return object;
+                }
+            }
+        }
+
+        private List<Object> parseArray() throws IllegalArgumentException {
+            List<Object> array = new ArrayList<>();
+            index++;
+            skipWhitespace();
+            if (peek() == ']') {
+                index++;
+                return array;
+            }
+            while (true) {
+                array.add(parseValue());
+                skipWhitespace();
+                if (peek() == ',') {
+                    index++;
+                }
+                else {
+                    expect(']');
+                    return array;
+                }
+            }
+        }
+
+        private String parseString() throws IllegalArgumentException {
+            StringBuilder string = new StringBuilder();
+            index++;
+            while (index < text.length()) {
+                char ch = text.charAt(index++);
+                if (ch == '"') {
+                    return string.toString();
+                }
+                if (ch != '\\') {
+                    string.append(ch);
+                    continue;
+                }
+                if (index >= text.length()) {
+                    break;
+                }
+                char escaped = text.charAt(index++);
+                switch (escaped) {
+                    case 'b':
+                        string.append('\b');
+                        break;
+                    case 'f':
+                        string.append('\f');
+                        break;
+                    case 'n':
+                        string.append('\n');
+                        break;
+                    case 'r':
+                        string.append('\r');
+                        break;
+                    case 't':
+                        string.append('\t');
+                        break;
+                    case 'u':
+                        if (index + 4 > text.length()) {
+                            throw new IllegalArgumentException("A string ends in the middle of an escape!");
+                        }
+                        try {
+                            string.append((char) Integer.parseInt(text.substring(index, index + 4), 16));
+                        }
+                        catch (NumberFormatException e) {
+                            throw new IllegalArgumentException("A string has an invalid \\u escape!");
+                        }
+                        index += 4;
+                        break;
+                    default:
+                        string.append(escaped);
+                        break;
+                }
+            }
+            throw new IllegalArgumentException("The line ended in the middle of a string!");
+        }
+
+        private Object parseNumber() throws IllegalArgumentException {
+            int start = index;
+            while (index < text.length() && "+-0123456789.eE".indexOf(text.charAt(index)) >= 0) {
+                index++;
+            }
+            String number = text.substring(start, index);
+            try {
+                if (number.indexOf('.') < 0 && number.indexOf('e') < 0 && number.indexOf('E') < 0) {
+                    return Long.parseLong(number);
+                }
+                else return Double.parseDouble(number);
+            }
+            catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Unexpected \"" + (number.isEmpty() ? text.charAt(start) : number) +
+                        "\" at column " + (start + 1) + "!");
+            }
+        }
+
+        private Object parseLiteral(String literal, Object value) throws IllegalArgumentException {
+            if (!text.startsWith(literal, index)) {
+                throw new IllegalArgumentException("Unexpected " + text.charAt(index) + " at column " + (index + 1) +
+                        "!");
+            }
+            index += literal.length();
+            return value;
+        }
+
+        private void expect(char ch) throws IllegalArgumentException {
+            if (peek() != ch) {
+                throw new IllegalArgumentException("Expected " + ch + " at column " + (index + 1) + "!");
+            }
+            index++;
+        }
+
+        /**
+         * @return the next character, or 0 at the end of the text
+         */
+        private char peek() {
+            return index < text.length() ? text.charAt(index) : 0;
+        }
+
+        private void skipWhitespace() {
+            while (index < text.length() && Character.isWhitespace(text.charAt(index))) {
+                index++;
+            }
+        }
+    }
+}
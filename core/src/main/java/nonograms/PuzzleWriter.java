@@ -0,0 +1,158 @@
+package nonograms;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * A PuzzleWriter writes Puzzles one at a time in either the .non format or as JSON lines, in the same forms a
+ * PuzzleReader reads them. Each Puzzle is written as soon as it is given, so a file of any number of Puzzles can be
+ * written without holding them all in memory.
+ *
+ * @author Ben Stone
+ */
+public class PuzzleWriter implements Closeable, Flushable {
+    private Writer out;
+    private PuzzleReader.Format format;
+    // whether a Puzzle has been written yet, as .non Puzzles are separated by a blank line
+    private boolean written;
+
+    /**
+     * Creates a PuzzleWriter which writes Puzzles in the given format.
+     * @param out where the Puzzles are written
+     * @param format the Format to write the Puzzles in
+     */
+    public PuzzleWriter(Writer out, PuzzleReader.Format format) {
+        this.out = out;
+        this.format = format;
+    }
+
+    /**
+     * Creates a puzzle file, working out its format from its name. Any file already at the Path is replaced.
+     * @param file the Path of the puzzle file
+     * @return a PuzzleWriter writing to the start of the file
+     * @throws IOException if the file cannot be created
+     */
+    public static PuzzleWriter create(Path file) throws IOException {
+        return new PuzzleWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8),
+                PuzzleReader.Format.forFile(file));
+    }
+
+    /**
+     * Writes the given Puzzle after any already written.
+     * @param puzzle a Puzzle Object
+     * @throws IOException if the Puzzle cannot be written
+     */
+    public void write(Puzzle puzzle) throws IOException {
+        StringBuilder text = new StringBuilder();
+        Board board = puzzle.getBoard();
+        if (format == PuzzleReader.Format.JSON) {
+            text.append('{');
+            if (!puzzle.getTitle().isEmpty()) {
+                text.append("\"title\":").append(jsonString(puzzle.getTitle())).append(',');
+            }
+            text.append("\"width\":").append(board.width());
+            text.append(",\"height\":").append(board.height());
+            text.append(",\"rows\":");
+            appendJsonClues(text, board.getRowClues());
+            text.append(",\"columns\":");
+            appendJsonClues(text, board.getColClues());
+            text.append("}\n");
+        }
+        else {
+            if (written) {
+                text.append('\n');
+            }
+            if (!puzzle.getTitle().isEmpty()) {
+                // the .non format has no way of escaping quotes
+                text.append("title \"").append(puzzle.getTitle().replace('"', '\'')).append("\"\n");
+            }
+            text.append("width ").append(board.width()).append('\n');
+            text.append("height ").append(board.height()).append('\n');
+            text.append("\nrows\n");
+            appendNonClues(text, board.getRowClues());
+            text.append("\ncolumns\n");
+            appendNonClues(text, board.getColClues());
+        }
+        out.write(text.toString());
+        written = true;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * Appends each Clue on its own line with its numbers separated by commas.
+     * @param text the StringBuilder to append to
+     * @param clues an Array of Clues
+     */
+    private static void appendNonClues(StringBuilder text, Clue[] clues) {
+        for (Clue clue : clues) {
+            int[] lengths = clue.getGroupLengths();
+            if (lengths.length == 0) {
+                text.append('0');
+            }
+            for (int i = 0; i < lengths.length; i++) {
+                if (i > 0) {
+                    text.append(',');
+                }
+                text.append(lengths[i]);
+            }
+            text.append('\n');
+        }
+    }
+
+    /**
+     * Appends the Clues as a JSON array of arrays of numbers, where an empty array is the Clue of a lone zero.
+     * @param text the StringBuilder to append to
+     * @param clues an Array of Clues
+     */
+    private static void appendJsonClues(StringBuilder text, Clue[] clues) {
+        text.append('[');
+        for (int i = 0; i < clues.length; i++) {
+            if (i > 0) {
+                text.append(',');
+            }
+            text.append('[');
+            int[] lengths = clues[i].getGroupLengths();
+            for (int j = 0; j < lengths.length; j++) {
+                if (j > 0) {
+                    text.append(',');
+                }
+                text.append(lengths[j]);
+            }
+            text.append(']');
+        }
+        text.append(']');
+    }
+
+    /**
+     * @param value a String
+     * @return value as a quoted JSON string
+     */
+    static String jsonString(String value) {
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == '"' || ch == '\\') {
+                quoted.append('\\').append(ch);
+            }
+            else if (ch < ' ') {
+                quoted.append(String.format("\\u%04x", (int) ch));
+            }
+            else quoted.append(ch);
+        }
+        return quoted.append('"').toString();
+    }
+}
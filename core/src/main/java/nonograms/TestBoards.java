@@ -1,3 +1,5 @@
+package nonograms;
+
 /**
  * TestBoards is a class not meant to be instantiated, but instead provides a host of Board objects which can be used
  * for testing.
@@ -28,6 +30,14 @@ public class TestBoards {
                 new Clue(new int[] {1}), new Clue(new int[] {1, 2, 3}), new Clue(new int[] {2}),
                 new Clue(new int[] {1}), new Clue(new int[] {4}), new Clue(new int[] {2}), new Clue(new int[] {4})});
 
+    static final Board HI = new Board(10, 5,
+            new Clue[] {new Clue(new int[] {1, 1, 3}), new Clue(new int[] {1, 1, 1}), new Clue(new int[] {5, 1}),
+                    new Clue(new int[] {1, 1, 1}), new Clue(new int[] {1, 1, 3})},
+            new Clue[] {new Clue(new int[] {5}), new Clue(new int[] {1}), new Clue(new int[] {1}),
+                    new Clue(new int[] {1}), new Clue(new int[] {5}), new Clue(new int[] {0}),
+                    new Clue(new int[] {1, 1}), new Clue(new int[] {5}), new Clue(new int[] {1, 1}),
+                    new Clue(new int[] {0})});
+
     static final Board PUMPKIN = new Board(15,
             new Clue[] {new Clue(new int[] {3}), new Clue(new int[] {3}), new Clue(new int[] {5}),
                 new Clue(new int[] {11}), new Clue(new int[] {2, 5, 2}), new Clue(new int[] {2, 2, 2, 2}),
@@ -1,7 +1,12 @@
+package nonograms;
+
 /**
  * An object which represents a tile on a Nonogram board. Tile can be in one of three states: empty, filled, or
  * slashed. Tile objects can be freely changed between these three states.
  *
+ * A Tile either holds its own state, or is a view of one cell of a Board's BitGrid, in which case reading or changing
+ * it reads or changes the BitGrid.
+ *
  * @author Ben Stone
  */
 
@@ -11,8 +16,12 @@ public class Tile {
         SLASHED,
         EMPTY
     }
-    // stores the state of this Tile
+    // stores the state of this Tile when it is not a view of a BitGrid
     private State state;
+    // the BitGrid this Tile is a view of, or null if it holds its own state
+    private BitGrid grid;
+    // the position of this Tile in grid
+    private int row, col;
 
     /**
      * Default constructor which creates a new Tile set to empty by default
@@ -21,60 +30,86 @@ public class Tile {
         state = State.EMPTY;
     }
 
+    /**
+     * Creates a Tile which is a view of the cell of the given BitGrid at the given row and column.
+     * @param grid a BitGrid Object
+     * @param row an int row of grid
+     * @param col an int column of grid
+     */
+    Tile(BitGrid grid, int row, int col) {
+        this.grid = grid;
+        this.row = row;
+        this.col = col;
+    }
+
     /**
      * @return the current state of this Tile as an integer
      */
     public State getState() {
-        return state;
+        if (grid != null) {
+            return grid.getState(row, col);
+        }
+        else return state;
+    }
+
+    /**
+     * Sets this Tile's state to the given state
+     * @param newState the new State of this Tile
+     */
+    private void setState(State newState) {
+        if (grid != null) {
+            grid.setState(row, col, newState);
+        }
+        else state = newState;
     }
 
     /**
      * Sets this Tile's state to empty
      */
     public void empty() {
-        state = state.EMPTY;
+        setState(State.EMPTY);
     }
 
     /**
      * @return true if this Tile is empty
      */
     public boolean isEmpty() {
-        return state == State.EMPTY;
+        return getState() == State.EMPTY;
     }
 
     /**
      * Sets this Tile's state to filled
      */
     public void fill() {
-        state = State.FILLED;
+        setState(State.FILLED);
     }
 
     /**
      * @return true if this Tile is filled
      */
     public boolean isFilled() {
-        return state == State.FILLED;
+        return getState() == State.FILLED;
     }
 
     /**
      * Sets this Tile's state to slashed
      */
     public void slash() {
-        state = State.SLASHED;
+        setState(State.SLASHED);
     }
 
     /**
      * @return true if this Tile is slashed
      */
     public boolean isSlashed() {
-        return state == State.SLASHED;
+        return getState() == State.SLASHED;
     }
 
     /**
      * @return a String representation of this Tile object based on its state
      */
     public String toString() {
-        switch(state) {
+        switch(getState()) {
             case FILLED:
                 return "N";
             case SLASHED:
@@ -0,0 +1,380 @@
+package nonograms;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that Puzzles written by a BinaryPuzzleWriter are read back the same by a BinaryPuzzleFile, with and without
+ * their solutions, that damaged corpus files are rejected when they are opened, and that damaged records are rejected
+ * when their Puzzles are fetched.
+ *
+ * @author Ben Stone
+ */
+class BinaryPuzzleFileTest {
+    // more Puzzles than the writer makes room for at first, so its index has to grow
+    private static final int PUZZLES = 40;
+    // the title of the Puzzle in the corpus files whose records are damaged
+    private static final String TITLE = "abc";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsBackWhatIsWritten() throws IOException {
+        Path file = dir.resolve("corpus.nonb");
+        Random random = new Random(16);
+        Puzzle[] puzzles = new Puzzle[PUZZLES];
+        BitGrid[] solutions = new BitGrid[PUZZLES];
+        try (BinaryPuzzleWriter writer = new BinaryPuzzleWriter(file)) {
+            for (int i = 0; i < PUZZLES; i++) {
+                puzzles[i] = randomPuzzle(random, i);
+                // every third Puzzle is written without a solution
+                solutions[i] = i % 3 == 0 ? null : randomGrid(random, puzzles[i].getBoard());
+                assertEquals(i, writer.write(puzzles[i], solutions[i]));
+            }
+        }
+        try (BinaryPuzzleFile corpus = new BinaryPuzzleFile(file)) {
+            assertEquals(PUZZLES, corpus.size());
+            // out of order, so each Puzzle is found through the index
+            for (int i = PUZZLES - 1; i >= 0; i--) {
+                Puzzle puzzle = corpus.get(i);
+                assertEquals(puzzles[i].getTitle(), puzzle.getTitle());
+                assertSameClues(puzzles[i].getBoard().getRowClues(), puzzle.getBoard().getRowClues());
+                assertSameClues(puzzles[i].getBoard().getColClues(), puzzle.getBoard().getColClues());
+                BitGrid solution = corpus.getSolution(i);
+                if (solutions[i] == null) {
+                    assertNull(solution, "Puzzle " + i);
+                }
+                else assertSameTiles(solutions[i], solution);
+            }
+        }
+    }
+
+    @Test
+    void readsAnEmptyCorpus() throws IOException {
+        Path file = dir.resolve("empty.nonb");
+        new BinaryPuzzleWriter(file).close();
+        try (final BinaryPuzzleFile corpus = new BinaryPuzzleFile(file)) {
+            assertEquals(0, corpus.size());
+            assertThrows(IndexOutOfBoundsException.class, new Executable() {
+                @Override
+                public void execute() {
+                    corpus.get(0);
+                }
+            });
+        }
+    }
+
+    @Test
+    void rejectsSolutionsOfTheWrongSize() throws IOException {
+        final Puzzle puzzle = randomPuzzle(new Random(1), 0);
+        try (final BinaryPuzzleWriter writer = new BinaryPuzzleWriter(dir.resolve("sizes.nonb"))) {
+            assertThrows(IllegalArgumentException.class, new Executable() {
+                @Override
+                public void execute() throws IOException {
+                    writer.write(puzzle, new BitGrid(puzzle.getBoard().width() + 1, puzzle.getBoard().height()));
+                }
+            });
+        }
+    }
+
+    @Test
+    void rejectsABadMagicNumber() throws IOException {
+        Path file = writeCorpus("magic.nonb");
+        patchInt(file, 0, 0x4A534F4E);
+        assertFailsToOpen(file, "is not a puzzle corpus");
+    }
+
+    @Test
+    void rejectsAnUnknownVersion() throws IOException {
+        Path file = writeCorpus("version.nonb");
+        patchInt(file, 4, BinaryPuzzleWriter.VERSION + 1);
+        assertFailsToOpen(file, "is version " + (BinaryPuzzleWriter.VERSION + 1));
+    }
+
+    @Test
+    void rejectsATruncatedIndex() throws IOException {
+        Path file = writeCorpus("truncated.nonb");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 4);
+        }
+        assertFailsToOpen(file, "has a damaged index");
+    }
+
+    @Test
+    void rejectsAFileShorterThanTheHeader() throws IOException {
+        Path file = dir.resolve("short.nonb");
+        Files.write(file, new byte[] {'N', 'O', 'N', 'B'});
+        assertFailsToOpen(file, "is not a puzzle corpus");
+    }
+
+    @Test
+    void rejectsARecordOffsetOutsideOfTheRecords() throws IOException {
+        Path file = writeSmallCorpus("offset.nonb");
+        patchLong(file, indexOffset(file), BinaryPuzzleWriter.HEADER_SIZE - 1);
+        assertDamaged(file, "its offset 19 is outside of the records");
+        patchLong(file, indexOffset(file), indexOffset(file));
+        assertDamaged(file, "is outside of the records");
+    }
+
+    @Test
+    void rejectsATitleLongerThanTheRecord() throws IOException {
+        Path file = writeSmallCorpus("title.nonb");
+        // the record starts with its width, its height and the length of its title, each a single byte here
+        patchByte(file, BinaryPuzzleWriter.HEADER_SIZE + 2, 0x7F);
+        assertDamaged(file, "its title needs 127 bytes");
+    }
+
+    @Test
+    void rejectsDimensionsTooLargeForTheRecord() throws IOException {
+        Path file = writeSmallCorpus("dimensions.nonb");
+        patchByte(file, BinaryPuzzleWriter.HEADER_SIZE, 0x7F);
+        assertDamaged(file, "the Clues of a 127x2 Board");
+    }
+
+    @Test
+    void rejectsANumberTooLargeForAnInt() throws IOException {
+        Path file = writeSmallCorpus("varint.nonb");
+        // six bytes in a row which each say another byte follows
+        for (int i = 0; i < 6; i++) {
+            patchByte(file, BinaryPuzzleWriter.HEADER_SIZE + 3 + TITLE.length() + i, 0x80);
+        }
+        assertDamaged(file, "a number is too large to be an int");
+    }
+
+    @Test
+    void rejectsAClueWithMoreNumbersThanTheRecord() throws IOException {
+        Path file = writeSmallCorpus("clue.nonb");
+        patchByte(file, BinaryPuzzleWriter.HEADER_SIZE + 3 + TITLE.length(), 0x7F);
+        assertDamaged(file, "Clue 0 of 127 numbers");
+    }
+
+    /**
+     * @param name the name of the file
+     * @return the Path of a new corpus file holding one 3x2 Puzzle titled TITLE, with its solution
+     * @throws IOException if the file cannot be written
+     */
+    private Path writeSmallCorpus(String name) throws IOException {
+        Path file = dir.resolve(name);
+        Clue[] rowClues = {new Clue(new int[] {1, 1}), new Clue(new int[] {3})};
+        Clue[] colClues = {new Clue(new int[] {2}), new Clue(new int[] {1}), new Clue(new int[] {2})};
+        BitGrid solution = new BitGrid(3, 2);
+        solution.fill(0, 0);
+        solution.fill(0, 2);
+        solution.fill(1, 0);
+        solution.fill(1, 1);
+        solution.fill(1, 2);
+        try (BinaryPuzzleWriter writer = new BinaryPuzzleWriter(file)) {
+            writer.write(new Puzzle(TITLE, new Board(3, 2, rowClues, colClues)), solution);
+        }
+        return file;
+    }
+
+    /**
+     * @param name the name of the file
+     * @return the Path of a new corpus file of a few Puzzles
+     * @throws IOException if the file cannot be written
+     */
+    private Path writeCorpus(String name) throws IOException {
+        Path file = dir.resolve(name);
+        Random random = new Random(name.hashCode());
+        try (BinaryPuzzleWriter writer = new BinaryPuzzleWriter(file)) {
+            for (int i = 0; i < 3; i++) {
+                Puzzle puzzle = randomPuzzle(random, i);
+                writer.write(puzzle, randomGrid(random, puzzle.getBoard()));
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Overwrites four bytes of a file with a little endian int.
+     * @param file the Path of the file
+     * @param offset the offset of the bytes
+     * @param value the int to write
+     * @throws IOException if the file cannot be written
+     */
+    private static void patchInt(Path file, long offset, int value) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ByteBuffer bytes = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(value);
+            bytes.flip();
+            channel.write(bytes, offset);
+        }
+    }
+
+    /**
+     * Overwrites a byte of a file.
+     * @param file the Path of the file
+     * @param offset the offset of the byte
+     * @param value the byte to write
+     * @throws IOException if the file cannot be written
+     */
+    private static void patchByte(Path file, long offset, int value) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {(byte) value}), offset);
+        }
+    }
+
+    /**
+     * Overwrites eight bytes of a file with a little endian long.
+     * @param file the Path of the file
+     * @param offset the offset of the bytes
+     * @param value the long to write
+     * @throws IOException if the file cannot be written
+     */
+    private static void patchLong(Path file, long offset, long value) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ByteBuffer bytes = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putLong(value);
+            bytes.flip();
+            channel.write(bytes, offset);
+        }
+    }
+
+    /**
+     * @param file the Path of a corpus file
+     * @return the offset of its index, read from its header
+     * @throws IOException if the file cannot be read
+     */
+    private static long indexOffset(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer bytes = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(bytes, 12);
+            return bytes.getLong(0);
+        }
+    }
+
+    /**
+     * Checks that a corpus file opens, but that fetching its first Puzzle or its solution fails with an
+     * UncheckedIOException.
+     * @param file the Path of the file
+     * @param message part of the message the UncheckedIOException must have
+     * @throws IOException if the file cannot be opened
+     */
+    private static void assertDamaged(Path file, String message) throws IOException {
+        try (final BinaryPuzzleFile corpus = new BinaryPuzzleFile(file)) {
+            UncheckedIOException e = assertThrows(UncheckedIOException.class, new Executable() {
+                @Override
+                public void execute() {
+                    corpus.get(0);
+                }
+            });
+            assertTrue(e.getMessage().contains(message), "\"" + e.getMessage() + "\" should say " + message);
+            assertThrows(UncheckedIOException.class, new Executable() {
+                @Override
+                public void execute() {
+                    corpus.getSolution(0);
+                }
+            });
+        }
+    }
+
+    /**
+     * Checks that opening a corpus file fails with an IOException.
+     * @param file the Path of the file
+     * @param message part of the message the IOException must have
+     */
+    private static void assertFailsToOpen(final Path file, String message) {
+        IOException e = assertThrows(IOException.class, new Executable() {
+            @Override
+            public void execute() throws IOException {
+                new BinaryPuzzleFile(file).close();
+            }
+        });
+        assertTrue(e.getMessage().contains(message), "\"" + e.getMessage() + "\" should say " + message);
+    }
+
+    /**
+     * Makes a Puzzle of random Clues, some of them a lone zero and some of them too large to fit in a byte, with a
+     * title which is empty or needs more than one byte per character.
+     * @param random the Random to draw from
+     * @param id the ID the Puzzle will have
+     * @return a new Puzzle, whose Clues need not describe any picture
+     */
+    private static Puzzle randomPuzzle(Random random, int id) {
+        int width = 1 + random.nextInt(id % 4 == 0 ? 300 : 12);
+        int height = 1 + random.nextInt(12);
+        Clue[] rowClues = new Clue[height];
+        for (int r = 0; r < height; r++) {
+            rowClues[r] = randomClue(random, width);
+        }
+        Clue[] colClues = new Clue[width];
+        for (int c = 0; c < width; c++) {
+            colClues[c] = randomClue(random, height);
+        }
+        String title = id % 5 == 0 ? "" : "Puzzle \u00e9\u4e2d " + id;
+        return new Puzzle(title, new Board(width, height, rowClues, colClues));
+    }
+
+    /**
+     * @param random the Random to draw from
+     * @param length the length of the line
+     * @return a Clue of up to three random numbers no longer than the line, or a lone zero
+     */
+    private static Clue randomClue(Random random, int length) {
+        int[] numbers = new int[1 + random.nextInt(3)];
+        for (int i = 0; i < numbers.length; i++) {
+            numbers[i] = random.nextInt(4) == 0 ? length : 1 + random.nextInt(length);
+        }
+        return random.nextInt(5) == 0 ? new Clue(new int[] {0}) : new Clue(numbers);
+    }
+
+    /**
+     * @param random the Random to draw from
+     * @param board the Board the grid is for
+     * @return a BitGrid the size of board with each Tile filled or slashed at random
+     */
+    private static BitGrid randomGrid(Random random, Board board) {
+        BitGrid grid = new BitGrid(board.width(), board.height());
+        for (int r = 0; r < board.height(); r++) {
+            for (int c = 0; c < board.width(); c++) {
+                if (random.nextBoolean()) {
+                    grid.fill(r, c);
+                }
+                else grid.slash(r, c);
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * @param expected the Clues written
+     * @param actual the Clues read
+     */
+    private static void assertSameClues(Clue[] expected, Clue[] actual) {
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertArrayEquals(expected[i].getGroupLengths(), actual[i].getGroupLengths(), "Clue " + i);
+        }
+    }
+
+    /**
+     * @param expected the grid written
+     * @param actual the grid read
+     */
+    private static void assertSameTiles(BitGrid expected, BitGrid actual) {
+        assertEquals(expected.width(), actual.width());
+        assertEquals(expected.height(), actual.height());
+        for (int r = 0; r < expected.height(); r++) {
+            for (int c = 0; c < expected.width(); c++) {
+                assertEquals(expected.getState(r, c), actual.getState(r, c), "Tile " + r + ", " + c);
+            }
+        }
+    }
+}
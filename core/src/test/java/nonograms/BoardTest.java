@@ -1,3 +1,5 @@
+package nonograms;
+
 /**
  * A class used for the abstract testing of a board class. Only uses String output, the "backend" portion.
  */
@@ -20,8 +22,10 @@ public class BoardTest {
         b.fillTile(2, 1);
         b.fillTile(2, 2);
 
-        for (int i = 0; i < b.getBoard().length; i++) {
+        for (int i = 0; i < b.width(); i++) {
             b.checkCol(i);
+        }
+        for (int i = 0; i < b.height(); i++) {
             b.checkRow(i);
         }
 
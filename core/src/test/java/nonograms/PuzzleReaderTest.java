@@ -0,0 +1,162 @@
+package nonograms;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that a PuzzleReader reads both of its formats, including their awkward corners, and rejects Puzzles which are
+ * cut short or do not add up, and that what a PuzzleWriter writes reads back the same.
+ *
+ * @author Ben Stone
+ */
+class PuzzleReaderTest {
+    private static final String EXAMPLE_NON = "title \"Example\"\n" +
+            "author someone\n" +
+            "width 3\n" +
+            "height 2\n" +
+            "rows\n" +
+            "1,1\n" +
+            "3\n" +
+            "columns\n" +
+            "2\n" +
+            "1\n" +
+            "2\n";
+
+    @Test
+    void readsSeveralNonPuzzles() throws IOException {
+        PuzzleReader reader = reader(EXAMPLE_NON + "\n" + EXAMPLE_NON.replace("Example", "Second"),
+                PuzzleReader.Format.NON);
+        Puzzle first = reader.read();
+        assertEquals("Example", first.getTitle());
+        assertClues(first.getBoard().getRowClues(), new int[] {1, 1}, new int[] {3});
+        assertClues(first.getBoard().getColClues(), new int[] {2}, new int[] {1}, new int[] {2});
+        assertEquals("Second", reader.read().getTitle());
+        assertNull(reader.read());
+    }
+
+    @Test
+    void readsBlankNonLinesAsEmptyClues() throws IOException {
+        Puzzle puzzle = reader("width 2\nheight 2\nrows\n\n0\ncolumns\n\n\n", PuzzleReader.Format.NON).read();
+        assertClues(puzzle.getBoard().getRowClues(), new int[0], new int[0]);
+        assertClues(puzzle.getBoard().getColClues(), new int[0], new int[0]);
+    }
+
+    @Test
+    void rejectsNonSectionsWhichEndEarly() {
+        assertFails("ended after 1 of its 2 Clues", "width 3\nheight 2\nrows\n1,1\n", PuzzleReader.Format.NON);
+        assertFails("ended after 2 of its 3 Clues", "width 3\nheight 2\nrows\n1,1\n3\ncolumns\n2\n1\n",
+                PuzzleReader.Format.NON);
+        assertFails("missing its columns", "width 3\nheight 2\nrows\n1,1\n3\n", PuzzleReader.Format.NON);
+        assertFails("before its height", "width 3\nrows\n1,1\n3\n", PuzzleReader.Format.NON);
+        assertFails("given twice", "width 3\nwidth 3\n", PuzzleReader.Format.NON);
+        assertFails("not a valid Clue", "width 1\nheight 1\nrows\n1,x\ncolumns\n1\n", PuzzleReader.Format.NON);
+    }
+
+    @Test
+    void readsJsonEscapes() throws IOException {
+        String line = "{\"title\":\"A \\\"quoted\\\" \\\\ title\\twith \\u00e9\\/\\n\",\"rows\":[[1]],\"columns\":[[1]]}";
+        Puzzle puzzle = reader(line, PuzzleReader.Format.JSON).read();
+        assertEquals("A \"quoted\" \\ title\twith \u00e9/\n", puzzle.getTitle());
+    }
+
+    @Test
+    void readsEmptyAndZeroJsonClues() throws IOException {
+        String line = "{\"width\":2,\"height\":3,\"rows\":[[],[0],[2]],\"columns\":[[1],[ ]]}";
+        Puzzle puzzle = reader("\n" + line + "\n\n", PuzzleReader.Format.JSON).read();
+        Board board = puzzle.getBoard();
+        assertEquals(2, board.width());
+        assertEquals(3, board.height());
+        assertEquals("", puzzle.getTitle());
+        assertClues(board.getRowClues(), new int[0], new int[0], new int[] {2});
+        assertClues(board.getColClues(), new int[] {1}, new int[0]);
+    }
+
+    @Test
+    void rejectsJsonSizesWhichDoNotMatchTheClues() {
+        assertFails("width does not match its 1 Clues", "{\"width\":2,\"rows\":[[1]],\"columns\":[[1]]}",
+                PuzzleReader.Format.JSON);
+        assertFails("height does not match its 2 Clues", "{\"height\":3,\"rows\":[[1],[1]],\"columns\":[[2]]}",
+                PuzzleReader.Format.JSON);
+        assertFails("height does not match its 1 Clues", "{\"height\":\"1\",\"rows\":[[1]],\"columns\":[[1]]}",
+                PuzzleReader.Format.JSON);
+    }
+
+    @Test
+    void rejectsMalformedJson() {
+        assertFails("Line 1: ", "{\"rows\":[[1]],\"columns\":[[1]]", PuzzleReader.Format.JSON);
+        assertFails("ended in the middle of a string", "{\"title\":\"abc", PuzzleReader.Format.JSON);
+        assertFails("invalid \\u escape", "{\"title\":\"\\uzzzz\"}", PuzzleReader.Format.JSON);
+        assertFails("must be a non-empty array", "{\"rows\":[],\"columns\":[[1]]}", PuzzleReader.Format.JSON);
+        assertFails("must be an array of numbers", "{\"rows\":[[-1]],\"columns\":[[1]]}", PuzzleReader.Format.JSON);
+        assertFails("must be a JSON object", "[1]", PuzzleReader.Format.JSON);
+    }
+
+    @Test
+    void readsBackWhatIsWritten() throws IOException {
+        Clue[] rowClues = {new Clue(new int[] {1, 1}), new Clue(new int[] {0})};
+        Clue[] colClues = {new Clue(new int[] {1}), new Clue(new int[] {0}), new Clue(new int[] {1})};
+        for (PuzzleReader.Format format : PuzzleReader.Format.values()) {
+            StringWriter text = new StringWriter();
+            PuzzleWriter writer = new PuzzleWriter(text, format);
+            writer.write(new Puzzle("Round trip", new Board(3, 2, rowClues, colClues)));
+            writer.write(new Puzzle(null, new Board(3, 2, rowClues, colClues)));
+            writer.close();
+
+            PuzzleReader reader = reader(text.toString(), format);
+            for (String title : new String[] {"Round trip", ""}) {
+                Puzzle puzzle = reader.read();
+                assertEquals(title, puzzle.getTitle(), format.name());
+                assertClues(puzzle.getBoard().getRowClues(), new int[] {1, 1}, new int[0]);
+                assertClues(puzzle.getBoard().getColClues(), new int[] {1}, new int[0], new int[] {1});
+            }
+            assertNull(reader.read(), format.name());
+        }
+    }
+
+    /**
+     * @param text the contents of a puzzle file
+     * @param format the Format of text
+     * @return a PuzzleReader reading text
+     */
+    private static PuzzleReader reader(String text, PuzzleReader.Format format) {
+        return new PuzzleReader(new BufferedReader(new StringReader(text)), format);
+    }
+
+    /**
+     * Checks that reading the first Puzzle of a file fails with an IOException.
+     * @param message part of the message the IOException must have
+     * @param text the contents of a puzzle file
+     * @param format the Format of text
+     */
+    private static void assertFails(String message, final String text, final PuzzleReader.Format format) {
+        IOException e = assertThrows(IOException.class, new Executable() {
+            @Override
+            public void execute() throws IOException {
+                reader(text, format).read();
+            }
+        });
+        assertTrue(e.getMessage().contains(message), "\"" + e.getMessage() + "\" should say " + message);
+    }
+
+    /**
+     * @param clues the Clues read
+     * @param expected the group lengths each Clue should have, where a Clue of a lone zero has none
+     */
+    private static void assertClues(Clue[] clues, int[]... expected) {
+        assertEquals(expected.length, clues.length);
+        for (int i = 0; i < clues.length; i++) {
+            assertArrayEquals(expected[i], clues[i].getGroupLengths(), "Clue " + i);
+        }
+    }
+}
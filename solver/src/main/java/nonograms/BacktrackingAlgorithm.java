@@ -0,0 +1,504 @@
+package nonograms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The BacktrackingAlgorithm class is a variation on the ConstraintPropagationAlgorithm which searches a single grid in
+ * place rather than copying it at every branch. Every Tile made known during the search is pushed onto a trail, so
+ * backing out of a branch only has to empty the Tiles pushed since the branch was taken.
+ *
+ * When propagation stalls, the algorithm branches by one of two rules, chosen through setBranching:
+ * <ul>
+ *     <li>READING_ORDER, the default, branches on the first unknown Tile in reading order. Each guess sits next to the
+ *     Tiles the guesses before it made known, so propagation carries on from where it left off rather than starting
+ *     over somewhere else on the Board.</li>
+ *     <li>MOST_CONSTRAINED_LINE branches on the row or column with the fewest solutions left, on the unknown Tile of it
+ *     which splits those solutions most evenly. A guess there is the quickest to be contradicted if it is wrong, so it
+ *     often needs fewer guesses, but when it picks badly the search can take far longer than in reading order.</li>
+ * </ul>
+ * Either way the state more of the line's solutions agree on is tried first, and the solutions of each row and column
+ * are only counted again once it has changed.
+ *
+ * The same search can count the solutions of a Board up to a limit, which tells whether its solution is unique.
+ *
+ * @author Ben Stone
+ */
+public class BacktrackingAlgorithm extends ConstraintPropagationAlgorithm {
+    private Board board;
+    // finds the forced Tiles of each line, and counts the solutions each line has left
+    private LineSolver lineSolver;
+    // every Tile made known since the search started, as row * width + column, in the order they became known
+    private int[] trail;
+    // the number of Tiles on the trail
+    private int trailSize;
+    // holds each column while it is looked at
+    private Tile.State[] column;
+    // the number of solutions each row and column had left when it was last counted
+    private long[] rowCounts, colCounts;
+    // whether each row and column has changed since it was last counted
+    private boolean[] rowStale, colStale;
+    // the number of unknown Tiles left in each row and column
+    private int[] rowUnknowns, colUnknowns;
+    // how the Tile to branch on is picked
+    private Branching branching;
+    // the state tried first for the Tile findBranchTile picked
+    private Tile.State firstGuess;
+    // the solutions found so far while counting them, or null if the search stops at the first
+    private List<BitGrid> solutions;
+    // the number of solutions to count before stopping
+    private int solutionLimit;
+
+    /**
+     * Creates a BacktrackingAlgorithm which solves the given Board without reporting its progress.
+     * @param board a Board Object
+     */
+    public BacktrackingAlgorithm(Board board) {
+        this(board, null);
+    }
+
+    /**
+     * Creates a BacktrackingAlgorithm which solves the given Board, telling the listener whenever the Board changes.
+     * @param board a Board Object
+     * @param listener a SolveListener, or null to not report progress
+     */
+    public BacktrackingAlgorithm(Board board, SolveListener listener) {
+        super(board, listener);
+        this.board = board;
+        lineSolver = new LineSolver();
+        branching = Branching.READING_ORDER;
+    }
+
+    /**
+     * Sets how the Tile to branch on is picked when propagation stalls, which is READING_ORDER unless set.
+     * @param branching a Branching rule
+     */
+    public void setBranching(Branching branching) {
+        this.branching = branching;
+    }
+
+    /**
+     * @return how the Tile to branch on is picked when propagation stalls
+     */
+    public Branching getBranching() {
+        return branching;
+    }
+
+    /**
+     * Searches for a solution depth first, propagating after every guess and undoing guesses through the trail. Each
+     * propagation counts as a node.
+     * @param grid the known state of each Tile, where an empty Tile is not yet known, edited in place
+     * @param context the SolveContext of the solve, told about every node of the search
+     * @return grid once every Tile is known, or null if there is no solution or the search was stopped
+     */
+    @Override
+    protected Tile.State[][] search(Tile.State[][] grid, SolveContext context) {
+        int width = board.width();
+        int tiles = width * board.height();
+        trail = new int[tiles];
+        trailSize = 0;
+        column = new Tile.State[board.height()];
+        rowCounts = new long[board.height()];
+        colCounts = new long[width];
+        rowStale = new boolean[board.height()];
+        colStale = new boolean[width];
+        Arrays.fill(rowStale, true);
+        Arrays.fill(colStale, true);
+        rowUnknowns = new int[board.height()];
+        colUnknowns = new int[width];
+        for (int r = 0; r < grid.length; r++) {
+            for (int c = 0; c < width; c++) {
+                if (grid[r][c] == Tile.State.EMPTY) {
+                    rowUnknowns[r]++;
+                    colUnknowns[c]++;
+                }
+            }
+        }
+        // the Tile guessed at each depth, the size of the trail before it was guessed, the state it was guessed first,
+        // and whether it has been guessed the other way yet
+        int[] guessTile = new int[tiles];
+        int[] guessMark = new int[tiles];
+        Tile.State[] guessFirst = new Tile.State[tiles];
+        boolean[] guessRetried = new boolean[tiles];
+        int depth = 0;
+        boolean[] rowDirty = new boolean[board.height()];
+        boolean[] colDirty = new boolean[width];
+        Arrays.fill(rowDirty, true);
+        Arrays.fill(colDirty, true);
+        while (context.tick()) {
+            if (propagate(grid, rowDirty, colDirty, context) && deduce(grid, context)) {
+                int tile = findBranchTile(grid);
+                if (tile >= 0) {
+                    context.addCandidatesGenerated(2);
+                    guessTile[depth] = tile;
+                    guessMark[depth] = trailSize;
+                    guessFirst[depth] = firstGuess;
+                    guessRetried[depth] = false;
+                    depth++;
+                    guess(grid, tile, firstGuess, rowDirty, colDirty);
+                    continue;
+                }
+                // every Tile is known, and propagation has made sure every row and column agrees with its Clue
+                if (!countSolution(grid)) {
+                    return grid;
+                }
+                // look for the next solution by backing out of this one as if it were a contradiction
+            }
+            else context.addCandidatesPruned(1);
+            // back up to the deepest guess which has not been tried the other way yet
+            while (depth > 0 && guessRetried[depth - 1]) {
+                depth--;
+            }
+            getMetrics().recordBacktrack(depth);
+            if (depth == 0) {
+                return null;
+            }
+            undo(grid, guessMark[depth - 1]);
+            guessRetried[depth - 1] = true;
+            // propagation stopped part way, so throw away what it had left to do
+            Arrays.fill(rowDirty, false);
+            Arrays.fill(colDirty, false);
+            Tile.State other = guessFirst[depth - 1] == Tile.State.FILLED ? Tile.State.SLASHED : Tile.State.FILLED;
+            guess(grid, guessTile[depth - 1], other, rowDirty, colDirty);
+        }
+        return null;
+    }
+
+    /**
+     * Counts the solutions of the Board, stopping once the given number of them have been found. The search carries on
+     * past each solution by backing out of it, so everything propagation and branching prune while solving is pruned
+     * while counting too, and proving a Board has a unique solution costs about as much as finding it and then
+     * exhausting the rest of the search. The Board itself is left as it is.
+     * @param limit the most solutions to find, where 2 is enough to tell whether the Board's solution is unique
+     * @param limits the SolveLimits of the count
+     * @return a SolutionCount holding every solution found
+     * @throws IllegalArgumentException if limit is less than 1
+     */
+    public SolutionCount countSolutions(int limit, SolveLimits limits) throws IllegalArgumentException {
+        if (limit < 1) {
+            throw new IllegalArgumentException(limit + " is not a valid number of solutions to find!");
+        }
+        SolveContext context = new SolveContext(limits);
+        // every Tile starts out unknown, which is represented by an empty Tile
+        Tile.State[][] grid = new Tile.State[board.height()][board.width()];
+        for (Tile.State[] row : grid) {
+            Arrays.fill(row, Tile.State.EMPTY);
+        }
+        List<BitGrid> found = new ArrayList<>();
+        solutions = found;
+        solutionLimit = limit;
+        long start = startPhase();
+        try {
+            search(grid, context);
+        }
+        finally {
+            endPhase(SolverMetrics.Phase.SEARCH, start);
+            solutions = null;
+        }
+        boolean exhausted = !context.isStopped() && found.size() < limit;
+        SolveStatus status = found.isEmpty() ? context.statusOr(SolveStatus.UNSOLVABLE) : SolveStatus.SOLVED;
+        return new SolutionCount(status, found, exhausted, context.getElapsedNanos(), context.getNodes());
+    }
+
+    /**
+     * Counts a solution found by the search, if it is counting solutions.
+     * @param grid the known state of each Tile, all of which are known
+     * @return true if the search should go on to look for another solution, false if it should stop at this one
+     */
+    private boolean countSolution(Tile.State[][] grid) {
+        if (solutions == null) {
+            return false;
+        }
+        solutions.add(toBitGrid(grid));
+        return solutions.size() < solutionLimit;
+    }
+
+    /**
+     * Makes whatever further deductions this algorithm can once propagation has stalled, before the search branches.
+     * The BacktrackingAlgorithm makes none, but a subclass may mark more Tiles through set and propagate, which are
+     * undone along with the rest of the branch they were made in.
+     * @param grid the known state of each Tile, which propagation has made consistent, edited in place
+     * @param context the SolveContext of the solve
+     * @return false if the deductions found the grid has no solution, true otherwise
+     */
+    protected boolean deduce(Tile.State[][] grid, SolveContext context) {
+        return true;
+    }
+
+    /**
+     * Marks the forced Tiles of every dirty row and column, pushing them onto the trail, until no more Tiles can be
+     * found.
+     * @param grid the known state of each Tile, edited in place
+     * @param rowDirty whether each row has changed since it was last looked at, all false once this returns true
+     * @param colDirty whether each column has changed since it was last looked at, all false once this returns true
+     * @param context the SolveContext of the solve, told how many rounds of propagation were made
+     * @return false if some row or column was left without any possible solution, true otherwise
+     */
+    protected boolean propagate(Tile.State[][] grid, boolean[] rowDirty, boolean[] colDirty,
+                                SolveContext context) {
+        Clue[] rowClues = board.getRowClues();
+        Clue[] colClues = board.getColClues();
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            context.addPropagationRounds(1);
+            for (int r = 0; r < grid.length; r++) {
+                if (!rowDirty[r]) {
+                    continue;
+                }
+                rowDirty[r] = false;
+                Tile.State[] forced = lineSolver.solve(rowClues[r], grid[r]);
+                if (forced == null) {
+                    return false;
+                }
+                for (int c = 0; c < forced.length; c++) {
+                    if (forced[c] != Tile.State.EMPTY && grid[r][c] == Tile.State.EMPTY) {
+                        set(grid, r, c, forced[c]);
+                        colDirty[c] = true;
+                        changed = true;
+                    }
+                }
+            }
+            for (int c = 0; c < colClues.length; c++) {
+                if (!colDirty[c]) {
+                    continue;
+                }
+                colDirty[c] = false;
+                Tile.State[] forced = lineSolver.solve(colClues[c], readColumn(grid, c));
+                if (forced == null) {
+                    return false;
+                }
+                for (int r = 0; r < forced.length; r++) {
+                    if (forced[r] != Tile.State.EMPTY && grid[r][c] == Tile.State.EMPTY) {
+                        set(grid, r, c, forced[r]);
+                        rowDirty[r] = true;
+                        changed = true;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Picks the Tile to branch on by the Branching rule, and leaves the state to try first in firstGuess.
+     * @param grid the known state of each Tile, which propagation has made consistent
+     * @return the Tile as row * width + column, or -1 if every Tile is known
+     */
+    private int findBranchTile(Tile.State[][] grid) {
+        if (branching == Branching.READING_ORDER) {
+            return findFirstUnknownTile(grid);
+        }
+        else return findMostConstrainedTile(grid);
+    }
+
+    /**
+     * Finds the first unknown Tile in reading order, and leaves the state more of the solutions its row still has agree
+     * on in firstGuess.
+     * @param grid the known state of each Tile, which propagation has made consistent
+     * @return the Tile as row * width + column, or -1 if every Tile is known
+     */
+    private int findFirstUnknownTile(Tile.State[][] grid) {
+        Clue[] rowClues = board.getRowClues();
+        for (int r = 0; r < grid.length; r++) {
+            if (rowUnknowns[r] == 0) {
+                continue;
+            }
+            long count = countRow(grid, r);
+            int c = indexOfEmpty(grid[r]);
+            grid[r][c] = Tile.State.FILLED;
+            long filled = lineSolver.countSolutions(rowClues[r], grid[r]);
+            grid[r][c] = Tile.State.EMPTY;
+            firstGuess = filled >= count - filled ? Tile.State.FILLED : Tile.State.SLASHED;
+            return r * board.width() + c;
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the row or column with the fewest solutions left, out of those with any unknown Tiles, and picks the
+     * unknown Tile of it which splits those solutions most evenly between filled and slashed. The state more of them
+     * agree on is left in firstGuess.
+     * @param grid the known state of each Tile, which propagation has made consistent
+     * @return the Tile as row * width + column, or -1 if every Tile is known
+     */
+    private int findMostConstrainedTile(Tile.State[][] grid) {
+        int width = board.width();
+        long fewest = Long.MAX_VALUE;
+        // the most constrained line, as a row index, or as height plus a column index
+        int bestLine = -1;
+        for (int r = 0; r < grid.length; r++) {
+            if (rowUnknowns[r] > 0) {
+                long count = countRow(grid, r);
+                if (count < fewest) {
+                    fewest = count;
+                    bestLine = r;
+                }
+            }
+        }
+        // every row is known, so every Tile is
+        if (bestLine < 0) {
+            return -1;
+        }
+        for (int c = 0; c < width; c++) {
+            if (colUnknowns[c] > 0) {
+                long count = countColumn(grid, c);
+                if (count < fewest) {
+                    fewest = count;
+                    bestLine = grid.length + c;
+                }
+            }
+        }
+        boolean isRow = bestLine < grid.length;
+        Clue clue = isRow ? board.getRowClues()[bestLine] : board.getColClues()[bestLine - grid.length];
+        Tile.State[] line = isRow ? grid[bestLine] : readColumn(grid, bestLine - grid.length);
+        // how unevenly the best Tile found so far splits the solutions
+        long leastImbalance = Long.MAX_VALUE;
+        int bestIndex = -1;
+        for (int i = 0; i < line.length; i++) {
+            if (line[i] != Tile.State.EMPTY) {
+                continue;
+            }
+            line[i] = Tile.State.FILLED;
+            long filled = lineSolver.countSolutions(clue, line);
+            line[i] = Tile.State.EMPTY;
+            long imbalance = Math.abs(filled - (fewest - filled));
+            if (imbalance < leastImbalance) {
+                leastImbalance = imbalance;
+                bestIndex = i;
+                firstGuess = filled >= fewest - filled ? Tile.State.FILLED : Tile.State.SLASHED;
+            }
+        }
+        return isRow ? bestLine * width + bestIndex : bestIndex * width + bestLine - grid.length;
+    }
+
+    /**
+     * @param grid the known state of each Tile
+     * @param r an int index of a row
+     * @return the number of solutions the row has left, counted again only if it has changed since it was last counted
+     */
+    private long countRow(Tile.State[][] grid, int r) {
+        if (rowStale[r]) {
+            rowStale[r] = false;
+            rowCounts[r] = lineSolver.countSolutions(board.getRowClues()[r], grid[r]);
+        }
+        return rowCounts[r];
+    }
+
+    /**
+     * @param grid the known state of each Tile
+     * @param c an int index of a column
+     * @return the number of solutions the column has left, counted again only if it has changed since it was last
+     * counted
+     */
+    private long countColumn(Tile.State[][] grid, int c) {
+        if (colStale[c]) {
+            colStale[c] = false;
+            colCounts[c] = lineSolver.countSolutions(board.getColClues()[c], readColumn(grid, c));
+        }
+        return colCounts[c];
+    }
+
+    /**
+     * Guesses the state of a Tile, marking its row and column dirty so the guess is propagated.
+     * @param grid the known state of each Tile, edited in place
+     * @param tile the Tile as row * width + column, which must be unknown
+     * @param state the state guessed
+     * @param rowDirty whether each row has changed since it was last looked at
+     * @param colDirty whether each column has changed since it was last looked at
+     */
+    private void guess(Tile.State[][] grid, int tile, Tile.State state, boolean[] rowDirty, boolean[] colDirty) {
+        int r = tile / board.width();
+        int c = tile % board.width();
+        set(grid, r, c, state);
+        rowDirty[r] = true;
+        colDirty[c] = true;
+    }
+
+    /**
+     * Makes an unknown Tile known, pushing it onto the trail.
+     * @param grid the known state of each Tile, edited in place
+     * @param r an int index of a row
+     * @param c an int index of a column
+     * @param state the state the Tile is now known to be
+     */
+    protected void set(Tile.State[][] grid, int r, int c, Tile.State state) {
+        grid[r][c] = state;
+        trail[trailSize++] = r * board.width() + c;
+        rowStale[r] = true;
+        colStale[c] = true;
+        rowUnknowns[r]--;
+        colUnknowns[c]--;
+    }
+
+    /**
+     * Empties every Tile pushed onto the trail since it was the given size, most recent first.
+     * @param grid the known state of each Tile, edited in place
+     * @param mark the size of the trail to go back to
+     */
+    protected void undo(Tile.State[][] grid, int mark) {
+        int width = board.width();
+        while (trailSize > mark) {
+            int tile = trail[--trailSize];
+            int r = tile / width;
+            int c = tile % width;
+            grid[r][c] = Tile.State.EMPTY;
+            rowStale[r] = true;
+            colStale[c] = true;
+            rowUnknowns[r]++;
+            colUnknowns[c]++;
+        }
+    }
+
+    /**
+     * @return the number of Tiles on the trail
+     */
+    protected int trailSize() {
+        return trailSize;
+    }
+
+    /**
+     * @param index an int index into the trail, below trailSize
+     * @return the Tile pushed onto the trail at index, as row * width + column
+     */
+    protected int trailTile(int index) {
+        return trail[index];
+    }
+
+    /**
+     * Reads a column of the grid into the shared column buffer.
+     * @param grid the known state of each Tile
+     * @param c an int index of a column
+     * @return the column buffer, holding the states of column c from top to bottom
+     */
+    private Tile.State[] readColumn(Tile.State[][] grid, int c) {
+        for (int r = 0; r < grid.length; r++) {
+            column[r] = grid[r][c];
+        }
+        return column;
+    }
+
+    /**
+     * A Branching is a rule for picking the Tile to branch on once propagation stalls.
+     */
+    public enum Branching {
+        // the first unknown Tile in reading order
+        READING_ORDER,
+        // the unknown Tile which splits the solutions of the row or column with the fewest left most evenly
+        MOST_CONSTRAINED_LINE
+    }
+
+    /**
+     * @param line the known state of each Tile in a line
+     * @return the index of the first unknown Tile of line, or -1 if every Tile is known
+     */
+    private static int indexOfEmpty(Tile.State[] line) {
+        for (int i = 0; i < line.length; i++) {
+            if (line[i] == Tile.State.EMPTY) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
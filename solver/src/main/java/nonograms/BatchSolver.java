@@ -0,0 +1,502 @@
+package nonograms;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A BatchSolver solves every puzzle in a set of puzzle files and directories of puzzle files without any GUI, writing
+ * one line of results for each puzzle as CSV or as JSON lines. Puzzle files are read as a stream by a PuzzleReader, and
+ * binary corpus files are mapped by a BinaryPuzzleFile with each worker fetching its own puzzles from them. The puzzles
+ * are solved concurrently by a fixed number of workers, with reading held back whenever the workers fall behind, so
+ * only the puzzles currently being solved are ever held in memory, however large the corpus is.
+ *
+ * Each solve is given SolveLimits of a timeout and optionally a node budget, and a puzzle whose search runs past
+ * them is reported as timed out or out of budget along with the Tiles its algorithm was sure of, where ? is a Tile
+ * which was not known. Results are written in the order the puzzles finish, not the order they were read in.
+ *
+ * Every solve reports into the SolverMetrics of the BatchSolver. From the command line, --metrics text writes a dump
+ * of them to standard error once every puzzle is solved, and --metrics jmx publishes them over JMX while solving.
+ *
+ * The brute force algorithms look up the possible solutions of each row in a LineCandidateCache shared by every
+ * worker, so rows which appear again anywhere in the corpus are not generated again. --cache-mb sets how large it may
+ * grow, where 0 turns it off.
+ *
+ * Usage: BatchSolver [--workers n] [--timeout millis] [--node-budget nodes] [--format csv|json] [--algorithm name]
+ * [--metrics text|jmx] [--cache-mb megabytes] [--output file] puzzle...
+ *
+ * @author Ben Stone
+ */
+public class BatchSolver {
+    // the puzzle files looked for in a directory
+    static final String PUZZLE_FILES = "*.{non,json,jsonl,nonb}";
+    // the extension of binary corpus files
+    static final String CORPUS_EXTENSION = ".nonb";
+    // the size the LineCandidateCache may grow to from the command line unless another is given, in megabytes
+    static final int DEFAULT_CACHE_MB = 64;
+    // the names of the SolvingAlgorithms newAlgorithm can create
+    static final List<String> ALGORITHMS = Arrays.asList("BruteForce", "SmartBruteForce", "ConstraintPropagation",
+            "ParallelSearch", "Backtracking", "Probing", "Sat");
+
+    // the number of puzzles solved at once
+    private int workers;
+    // the limits each puzzle is solved within
+    private SolveLimits limits;
+    // true to write JSON lines, false to write CSV
+    private boolean json;
+    // the name of the SolvingAlgorithm used for every puzzle
+    private String algorithm;
+    // where the results are written, shared by all the workers
+    private Writer out;
+    // solves each puzzle, reporting into the metrics of this BatchSolver
+    private Solver solver;
+    // the possible solutions of rows shared by every puzzle, or null to generate them for each puzzle
+    private LineCandidateCache candidateCache;
+
+    /**
+     * Creates a BatchSolver with the given settings.
+     * @param workers the number of puzzles solved at once
+     * @param timeoutMillis the time each puzzle is given to be solved, in milliseconds
+     * @param nodeBudget the number of search nodes each puzzle is given to be solved, or 0 for no limit
+     * @param json true to write JSON lines, false to write CSV
+     * @param algorithm the name of a SolvingAlgorithm, as taken by newAlgorithm
+     * @param out where the results are written
+     * @throws IllegalArgumentException if workers or timeoutMillis is not positive, nodeBudget is negative, or there
+     * is no SolvingAlgorithm with the given name
+     */
+    public BatchSolver(int workers, long timeoutMillis, long nodeBudget, boolean json, String algorithm, Writer out)
+            throws IllegalArgumentException {
+        if (workers < 1) {
+            throw new IllegalArgumentException("There must be at least one worker!");
+        }
+        if (timeoutMillis < 1) {
+            throw new IllegalArgumentException("The timeout must be at least one millisecond!");
+        }
+        if (!ALGORITHMS.contains(algorithm)) {
+            throw new IllegalArgumentException("There is no SolvingAlgorithm named " + algorithm + "!");
+        }
+        this.workers = workers;
+        this.limits = new SolveLimits(timeoutMillis, TimeUnit.MILLISECONDS, nodeBudget);
+        this.json = json;
+        this.algorithm = algorithm;
+        this.out = out;
+        this.solver = new Solver();
+    }
+
+    /**
+     * Sets the SolverMetrics every solve reports into, which are SolverMetrics.NONE unless set.
+     * @param metrics a SolverMetrics Object shared by all of the workers
+     */
+    public void setMetrics(SolverMetrics metrics) {
+        this.solver = new Solver(metrics);
+    }
+
+    /**
+     * Sets the LineCandidateCache every brute force solve looks up its rows in, which is none unless set.
+     * @param candidateCache a LineCandidateCache shared by all of the workers, or null for none
+     */
+    public void setCandidateCache(LineCandidateCache candidateCache) {
+        this.candidateCache = candidateCache;
+    }
+
+    /**
+     * Creates the SolvingAlgorithm with the given name for the given Board.
+     * @param name the name of a SolvingAlgorithm class without the Algorithm suffix, for example ConstraintPropagation
+     * @param board the Board to solve
+     * @return a SolvingAlgorithm which does not report its progress
+     * @throws IllegalArgumentException if there is no SolvingAlgorithm with the given name
+     */
+    public static SolvingAlgorithm newAlgorithm(String name, Board board) throws IllegalArgumentException {
+        switch (name) {
+            case "BruteForce":
+                return new BruteForceAlgorithm(board);
+            case "SmartBruteForce":
+                return new SmartBruteForceAlgorithm(board);
+            case "ConstraintPropagation":
+                return new ConstraintPropagationAlgorithm(board);
+            case "ParallelSearch":
+                return new ParallelSearchAlgorithm(board);
+            case "Backtracking":
+                return new BacktrackingAlgorithm(board);
+            case "Probing":
+                return new ProbingAlgorithm(board);
+            case "Sat":
+                return new SatAlgorithm(board);
+            default:
+                throw new IllegalArgumentException("There is no SolvingAlgorithm named " + name + "!");
+        }
+    }
+
+    /**
+     * Solves every puzzle in the given files and directories, returning once all of their results are written.
+     * @param inputs the Paths of puzzle files, or of directories whose puzzle files should all be solved
+     * @throws IOException if a directory cannot be listed or the results cannot be written
+     * @throws InterruptedException if the calling thread is interrupted while waiting for the workers
+     */
+    public void solveAll(List<Path> inputs) throws IOException, InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(workers, daemonThreads("batch-worker"));
+        // at most two puzzles per worker are waiting or being solved, which keeps memory bounded
+        Semaphore inFlight = new Semaphore(2 * workers);
+        try {
+            writeHeader();
+            for (Path input : inputs) {
+                if (Files.isDirectory(input)) {
+                    try (DirectoryStream<Path> files = Files.newDirectoryStream(input, PUZZLE_FILES)) {
+                        for (Path file : files) {
+                            submitFile(file, pool, inFlight);
+                        }
+                    }
+                }
+                else submitFile(input, pool, inFlight);
+            }
+            // wait for every puzzle to finish
+            inFlight.acquire(2 * workers);
+        }
+        finally {
+            pool.shutdownNow();
+            out.flush();
+        }
+    }
+
+    /**
+     * Reads the puzzles of a file one at a time, handing each to the workers once there is room for it. A puzzle
+     * which cannot be read is reported as an error, and the rest of its file is skipped.
+     * @param file the Path of a puzzle file
+     * @param pool the workers
+     * @param inFlight the permits for the puzzles waiting or being solved
+     * @throws InterruptedException if the calling thread is interrupted while waiting for room
+     */
+    private void submitFile(Path file, ExecutorService pool, final Semaphore inFlight) throws InterruptedException {
+        String fileName = file.getFileName().toString();
+        if (fileName.endsWith(CORPUS_EXTENSION)) {
+            submitCorpus(file, pool, inFlight);
+            return;
+        }
+        int count = 0;
+        try (PuzzleReader reader = PuzzleReader.open(file)) {
+            while (true) {
+                // wait for room before reading, so no more puzzles are held than the workers can take
+                inFlight.acquire();
+                final String name = fileName + "#" + (count + 1);
+                final Puzzle puzzle;
+                try {
+                    puzzle = reader.read();
+                }
+                catch (IOException | IllegalArgumentException e) {
+                    inFlight.release();
+                    writeResult(name, "", null, null, 0, e.getMessage());
+                    return;
+                }
+                if (puzzle == null) {
+                    inFlight.release();
+                    return;
+                }
+                count++;
+                pool.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            solveOne(name, puzzle);
+                        }
+                        finally {
+                            inFlight.release();
+                        }
+                    }
+                });
+            }
+        }
+        catch (IOException e) {
+            writeResult(fileName, "", null, null, 0, e.getMessage());
+        }
+    }
+
+    /**
+     * Hands every puzzle of a binary corpus file to the workers by its ID, once there is room for it. Each worker
+     * fetches its own puzzle from the mapped file.
+     * @param file the Path of a binary corpus file
+     * @param pool the workers
+     * @param inFlight the permits for the puzzles waiting or being solved
+     * @throws InterruptedException if the calling thread is interrupted while waiting for room
+     */
+    private void submitCorpus(Path file, ExecutorService pool, final Semaphore inFlight) throws InterruptedException {
+        final String fileName = file.getFileName().toString();
+        // the mapping stays valid after the file is closed, for as long as the workers need it
+        try (final BinaryPuzzleFile corpus = new BinaryPuzzleFile(file)) {
+            for (int id = 0; id < corpus.size(); id++) {
+                inFlight.acquire();
+                final int puzzleId = id;
+                pool.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        String name = fileName + "#" + (puzzleId + 1);
+                        try {
+                            solveOne(name, corpus.get(puzzleId));
+                        }
+                        catch (RuntimeException e) {
+                            writeResult(name, "", null, null, 0, e.getMessage());
+                        }
+                        finally {
+                            inFlight.release();
+                        }
+                    }
+                });
+            }
+        }
+        catch (IOException e) {
+            writeResult(fileName, "", null, null, 0, e.getMessage());
+        }
+    }
+
+    /**
+     * Solves and writes the results of a single puzzle on the current worker.
+     * @param name the name of the puzzle, made of its file name and its position in the file
+     * @param puzzle the Puzzle to solve
+     */
+    private void solveOne(String name, Puzzle puzzle) {
+        Board board = puzzle.getBoard();
+        SolvingAlgorithm solvingAlgorithm = newAlgorithm(algorithm, board);
+        if (solvingAlgorithm instanceof BruteForceAlgorithm) {
+            ((BruteForceAlgorithm) solvingAlgorithm).setCandidateCache(candidateCache);
+        }
+        long start = System.nanoTime();
+        try {
+            writeResult(name, puzzle.getTitle(), board, solver.solve(solvingAlgorithm, limits), 0, null);
+        }
+        catch (RuntimeException e) {
+            writeResult(name, puzzle.getTitle(), board, null, System.nanoTime() - start, e.toString());
+        }
+    }
+
+    /**
+     * Writes the CSV header, if results are written as CSV.
+     * @throws IOException if the header cannot be written
+     */
+    private void writeHeader() throws IOException {
+        if (!json) {
+            synchronized (out) {
+                out.write("puzzle,title,status,width,height,nanos,nodes,candidates,pruned,rounds,solution,error\n");
+            }
+        }
+    }
+
+    /**
+     * Writes one line of results.
+     * @param name the name of the puzzle
+     * @param title the title of the puzzle, which may be empty
+     * @param board the Board of the puzzle, or null if it could not be read
+     * @param result the SolveResult of the puzzle, or null if it could not be solved because of an error
+     * @param nanos how long the solve took before the error, in nanoseconds, if there is no result
+     * @param error a description of what went wrong, or null
+     */
+    private void writeResult(String name, String title, Board board, SolveResult result, long nanos, String error) {
+        StringBuilder line = new StringBuilder();
+        String status = result == null ? "error" : result.getStatus().name().toLowerCase(Locale.ROOT);
+        String solution = result == null ? "" : solutionString(result.getGrid());
+        if (result != null) {
+            nanos = result.getElapsedNanos();
+        }
+        String width = board == null ? "" : String.valueOf(board.width());
+        String height = board == null ? "" : String.valueOf(board.height());
+        if (json) {
+            line.append("{\"puzzle\":").append(PuzzleWriter.jsonString(name));
+            if (!title.isEmpty()) {
+                line.append(",\"title\":").append(PuzzleWriter.jsonString(title));
+            }
+            line.append(",\"status\":").append(PuzzleWriter.jsonString(status));
+            if (board != null) {
+                line.append(",\"width\":").append(width);
+                line.append(",\"height\":").append(height);
+            }
+            line.append(",\"nanos\":").append(nanos);
+            if (result != null) {
+                line.append(",\"nodes\":").append(result.getNodes());
+                line.append(",\"candidates\":").append(result.getCandidatesGenerated());
+                line.append(",\"pruned\":").append(result.getCandidatesPruned());
+                line.append(",\"rounds\":").append(result.getPropagationRounds());
+            }
+            if (!solution.isEmpty()) {
+                line.append(",\"solution\":").append(PuzzleWriter.jsonString(solution));
+            }
+            if (error != null) {
+                line.append(",\"error\":").append(PuzzleWriter.jsonString(error));
+            }
+            line.append("}\n");
+        }
+        else {
+            line.append(csvString(name)).append(',').append(csvString(title)).append(',').append(status).append(',');
+            line.append(width).append(',').append(height).append(',').append(nanos).append(',');
+            if (result != null) {
+                line.append(result.getNodes()).append(',').append(result.getCandidatesGenerated()).append(',');
+                line.append(result.getCandidatesPruned()).append(',').append(result.getPropagationRounds());
+            }
+            else line.append(",,,");
+            line.append(',').append(solution).append(',');
+            line.append(error == null ? "" : csvString(error)).append('\n');
+        }
+        try {
+            synchronized (out) {
+                out.write(line.toString());
+            }
+        }
+        catch (IOException e) {
+            throw new IllegalStateException("The results could not be written!", e);
+        }
+    }
+
+    /**
+     * @param grid a BitGrid Object
+     * @return the rows of grid from top to bottom separated by slashes, with # for a filled Tile, . for a slashed Tile
+     * and ? for an empty Tile, which is one that is not known
+     */
+    static String solutionString(BitGrid grid) {
+        StringBuilder solution = new StringBuilder(grid.height() * (grid.width() + 1));
+        for (int r = 0; r < grid.height(); r++) {
+            if (r > 0) {
+                solution.append('/');
+            }
+            for (int c = 0; c < grid.width(); c++) {
+                if (grid.isFilled(r, c)) {
+                    solution.append('#');
+                }
+                else if (grid.isSlashed(r, c)) {
+                    solution.append('.');
+                }
+                else solution.append('?');
+            }
+        }
+        return solution.toString();
+    }
+
+    /**
+     * @param value a String
+     * @return value quoted for a CSV field if it needs to be
+     */
+    private static String csvString(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        else return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * @param name the name given to each thread
+     * @return a ThreadFactory making daemon threads, so a solve that ignores its limits cannot keep the JVM alive
+     */
+    private static ThreadFactory daemonThreads(final String name) {
+        return new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+    }
+
+    public static void main(String[] args) {
+        int workers = Runtime.getRuntime().availableProcessors();
+        long timeoutMillis = 10000;
+        long nodeBudget = 0;
+        boolean json = false;
+        String algorithm = "ConstraintPropagation";
+        String output = null;
+        String metricsFormat = null;
+        long cacheMb = DEFAULT_CACHE_MB;
+        List<Path> inputs = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--workers":
+                        workers = Integer.parseInt(args[++i]);
+                        break;
+                    case "--timeout":
+                        timeoutMillis = Long.parseLong(args[++i]);
+                        break;
+                    case "--node-budget":
+                        nodeBudget = Long.parseLong(args[++i]);
+                        break;
+                    case "--format":
+                        String format = args[++i];
+                        if (!format.equals("csv") && !format.equals("json")) {
+                            throw new IllegalArgumentException("The results must be written as csv or json!");
+                        }
+                        json = format.equals("json");
+                        break;
+                    case "--algorithm":
+                        algorithm = args[++i];
+                        break;
+                    case "--metrics":
+                        metricsFormat = args[++i];
+                        if (!metricsFormat.equals("text") && !metricsFormat.equals("jmx")) {
+                            throw new IllegalArgumentException("The metrics must be exported as text or jmx!");
+                        }
+                        break;
+                    case "--cache-mb":
+                        cacheMb = Long.parseLong(args[++i]);
+                        if (cacheMb < 0) {
+                            throw new IllegalArgumentException("The cache cannot be a negative size!");
+                        }
+                        break;
+                    case "--output":
+                        output = args[++i];
+                        break;
+                    default:
+                        inputs.add(Paths.get(args[i]));
+                        break;
+                }
+            }
+            if (inputs.isEmpty()) {
+                throw new IllegalArgumentException("No puzzles were given!");
+            }
+            // check the settings before any results are written
+            new BatchSolver(workers, timeoutMillis, nodeBudget, json, algorithm, null);
+        }
+        catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            System.err.println(e.getMessage() == null ? "Missing the value of an option!" : e.getMessage());
+            System.err.println("Usage: BatchSolver [--workers n] [--timeout millis] [--node-budget nodes]" +
+                    " [--format csv|json] [--algorithm name] [--metrics text|jmx] [--cache-mb megabytes]" +
+                    " [--output file] puzzle...");
+            System.exit(2);
+            return;
+        }
+        try (Writer out = new BufferedWriter(output == null ?
+                new OutputStreamWriter(System.out, StandardCharsets.UTF_8) :
+                Files.newBufferedWriter(Paths.get(output), StandardCharsets.UTF_8))) {
+            BatchSolver batchSolver = new BatchSolver(workers, timeoutMillis, nodeBudget, json, algorithm, out);
+            CountingSolverMetrics metrics = new CountingSolverMetrics();
+            if (metricsFormat != null) {
+                batchSolver.setMetrics(metrics);
+            }
+            if (cacheMb > 0) {
+                // eight bytes to a word
+                batchSolver.setCandidateCache(new LineCandidateCache(cacheMb * 1024 * 1024 / 8));
+            }
+            if ("jmx".equals(metricsFormat)) {
+                new JmxMetricsExporter().export(metrics);
+            }
+            batchSolver.solveAll(inputs);
+            if ("text".equals(metricsFormat)) {
+                new TextMetricsExporter(new OutputStreamWriter(System.err, StandardCharsets.UTF_8)).export(metrics);
+            }
+        }
+        catch (IOException | InterruptedException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+    }
+}
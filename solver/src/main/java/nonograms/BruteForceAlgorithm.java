@@ -0,0 +1,425 @@
+package nonograms;
+
+import java.util.Iterator;
+
+/**
+ * The BruteForceAlgorithm class solves a Board using a brute force approach, checking every possible combination
+ * of valid rows until a correct solution is found.
+ *
+ * NOTE: This is an EXTREMELY inefficient algorithm, but is also guaranteed to find a solution given enough time.
+ *
+ * @author Ben Stone
+ */
+public class BruteForceAlgorithm implements SolvingAlgorithm {
+    // the number of solutions gathered between checks of the SolveLimits, which must be a power of two
+    static final int CHECK_INTERVAL = 1024;
+
+    private Board board;
+    // told about every change to the Board, or null if nothing is listening
+    private SolveListener listener;
+    // where the work done while solving is reported
+    private SolverMetrics metrics;
+    // the possible solutions of lines already generated, or null to generate every line's solutions
+    private LineCandidateCache candidateCache;
+
+    /**
+     * Creates a BruteForceAlgorithm which solves the given Board without reporting its progress.
+     * @param board a Board Object
+     */
+    public BruteForceAlgorithm(Board board) {
+        this(board, null);
+    }
+
+    /**
+     * Creates a BruteForceAlgorithm which solves the given Board, telling the listener whenever the Board changes.
+     * @param board a Board Object
+     * @param listener a SolveListener, or null to not report progress
+     */
+    public BruteForceAlgorithm(Board board, SolveListener listener) {
+        this.board = board;
+        this.listener = listener;
+        this.metrics = SolverMetrics.NONE;
+    }
+
+    /**
+     * Solves the given Board.
+     */
+    public void solve() {
+        solve(SolveLimits.NONE);
+    }
+
+    /**
+     * Solves the given Board, stopping early if the search goes past the given limits or the calling thread is
+     * interrupted. Each row solution tried counts as a node, and the limits are also checked while the solutions of
+     * each row are being generated.
+     * @param limits the SolveLimits of the search
+     * @return a SolveResult saying how the solve finished
+     */
+    public SolveResult solve(SolveLimits limits) {
+        SolveContext context = new SolveContext(limits);
+        SolutionMatrix rowSolutions = findRowSolutions(context);
+        // the search was stopped before every row's solutions were generated
+        if (rowSolutions == null) {
+            return context.finish(SolveStatus.UNSOLVABLE, new BitGrid(board.width(), board.height()));
+        }
+        // holds current solution index for each row
+        int[] currentSolutionIndices = new int[rowSolutions.size()];
+        // holds the max index for each row's solutions
+        int[] maxSolutionIndices = getMaxRowSolutionIndices(rowSolutions);
+        long start = startPhase();
+        boolean solved = iterateToSolve(context, rowSolutions, currentSolutionIndices, maxSolutionIndices);
+        endPhase(SolverMetrics.Phase.SEARCH, start);
+        if (solved) {
+            return context.finish(SolveStatus.SOLVED, copyOfBoard());
+        }
+        return context.finish(SolveStatus.UNSOLVABLE, findKnownTiles(rowSolutions));
+    }
+
+    @Override
+    public void setMetrics(SolverMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Sets the LineCandidateCache the possible solutions of each row are looked up in before generating them, and kept
+     * in after. There is no cache unless one is set.
+     * @param candidateCache a LineCandidateCache, which may be shared by algorithms on other threads, or null for none
+     */
+    public void setCandidateCache(LineCandidateCache candidateCache) {
+        this.candidateCache = candidateCache;
+    }
+
+    /**
+     * @return the LineCandidateCache the possible solutions of each row are looked up in, or null if there is none
+     */
+    protected LineCandidateCache getCandidateCache() {
+        return candidateCache;
+    }
+
+    /**
+     * @return the SolverMetrics this algorithm reports into
+     */
+    protected SolverMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Starts timing a Phase of the solve, without reading the clock if the metrics are not enabled.
+     * @return the System.nanoTime the Phase started at, or 0 if it is not being timed
+     */
+    protected long startPhase() {
+        return metrics.isEnabled() ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Finishes timing a Phase of the solve, adding the time spent in it to the metrics.
+     * @param phase the Phase being timed
+     * @param start what startPhase returned when the Phase started
+     */
+    protected void endPhase(SolverMetrics.Phase phase, long start) {
+        if (metrics.isEnabled()) {
+            metrics.addPhaseTime(phase, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Finds the possible solutions of each row which the search goes through.
+     * @param context the SolveContext of the solve, told how many solutions were found
+     * @return a SolutionMatrix Object, or null if the search was stopped before every row's solutions were found
+     */
+    protected SolutionMatrix findRowSolutions(SolveContext context) {
+        long start = startPhase();
+        SolutionMatrix rowSolutions = findAllPossibleSolutions(board, context);
+        endPhase(SolverMetrics.Phase.GENERATION, start);
+        if (rowSolutions == null) {
+            return null;
+        }
+        recordLineCandidates(rowSolutions);
+        context.addCandidatesGenerated(countSolutions(rowSolutions));
+        return rowSolutions;
+    }
+
+    /**
+     * Records the number of possible solutions of each row in the metrics, if they are enabled.
+     * @param rowSolutions a SolutionMatrix Object
+     */
+    protected void recordLineCandidates(SolutionMatrix rowSolutions) {
+        if (metrics.isEnabled()) {
+            for (int i = 0; i < rowSolutions.size(); i++) {
+                metrics.recordLineCandidates(rowSolutions.get(i).size());
+            }
+        }
+    }
+
+    /**
+     * @param rowSolutions a SolutionMatrix Object
+     * @return the total number of solutions of every row
+     */
+    protected long countSolutions(SolutionMatrix rowSolutions) {
+        long count = 0;
+        for (int i = 0; i < rowSolutions.size(); i++) {
+            count += rowSolutions.get(i).size();
+        }
+        return count;
+    }
+
+    /**
+     * Helper method which does the work of solving, which will be same for subclasses. Rows are placed from the top
+     * down, trying each row's solutions in turn, and a ColumnValidator rejects a row as soon as some column above and
+     * including it can no longer match its Clue, so the rows below it are never tried with it.
+     * @param context the SolveContext of the solve, told about every row solution tried and rejected
+     * @param rowSolutions a SolutionMatrix Object of all possible solutions for this Board
+     * @param currentSolutionIndices the starting indices for each row's lsolution
+     * @param maxSolutionIndices the maximum possible index for each row's solution
+     * @return true if the Board was solved, false if there is no solution or the search was stopped
+     */
+    protected boolean iterateToSolve(SolveContext context, SolutionMatrix rowSolutions, int[] currentSolutionIndices,
+                                     int[] maxSolutionIndices) {
+        ColumnValidator validator = new ColumnValidator(board.getColClues(), board.height());
+        // the row currently being placed, with every row above it already placed
+        int row = 0;
+        while (row >= 0) {
+            // every row has been placed without breaking a column, so this is a solution
+            if (row == currentSolutionIndices.length) {
+                for (int k = 0; k < currentSolutionIndices.length; k++) {
+                    editRowFromSolution(k, rowSolutions.get(k).get(currentSolutionIndices[k]));
+                    board.checkRow(k);
+                }
+                if (checkAll()) {
+                    return true;
+                }
+                // cannot happen unless the Board disagrees with the validator, so keep looking
+                row--;
+                currentSolutionIndices[row]++;
+                continue;
+            }
+            // this row has run out of solutions, so move the row above on to its next solution
+            if (currentSolutionIndices[row] > maxSolutionIndices[row]) {
+                metrics.recordBacktrack(row);
+                currentSolutionIndices[row] = 0;
+                row--;
+                if (row >= 0) {
+                    currentSolutionIndices[row]++;
+                }
+                continue;
+            }
+            if (!context.tick()) {
+                return false;
+            }
+            LineSolution solution = rowSolutions.get(row).get(currentSolutionIndices[row]);
+            if (hasListener()) {
+                editRowFromSolution(row, solution);
+            }
+            if (validator.placeRow(row, solution)) {
+                row++;
+            }
+            else {
+                context.addCandidatesPruned(1);
+                currentSolutionIndices[row]++;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds the Tiles which are the same in every possible solution of their row, which must be part of any solution.
+     * @param rowSolutions a SolutionMatrix Object of the possible solutions of each row
+     * @return a BitGrid of the Tiles known to be filled or slashed, with every other Tile empty
+     */
+    protected BitGrid findKnownTiles(SolutionMatrix rowSolutions) {
+        BitGrid known = new BitGrid(board.width(), board.height());
+        for (int r = 0; r < rowSolutions.size(); r++) {
+            SolutionSet solutions = rowSolutions.get(r);
+            // a row without any solutions tells nothing about its Tiles
+            if (solutions.size() == 0) {
+                continue;
+            }
+            LineSolution alwaysFilled = solutions.intersection();
+            LineSolution sometimesFilled = solutions.union();
+            for (int c = 0; c < board.width(); c++) {
+                if (alwaysFilled.isFilled(c)) {
+                    known.fill(r, c);
+                }
+                else if (!sometimesFilled.isFilled(c)) {
+                    known.slash(r, c);
+                }
+            }
+        }
+        return known;
+    }
+
+    /**
+     * @return a copy of the Tiles of the Board
+     */
+    protected BitGrid copyOfBoard() {
+        BitGrid copy = new BitGrid(board.width(), board.height());
+        copy.restore(board.snapshot());
+        return copy;
+    }
+
+    /**
+     * Finds all the possible solutions for each row within a given Board.
+     * @param board a Board Object.
+     * @return a SolutionMatrix Object
+     */
+    protected SolutionMatrix findAllPossibleSolutions(Board board) {
+        return findAllPossibleSolutions(board, new SolveContext(SolveLimits.NONE));
+    }
+
+    /**
+     * Finds all the possible solutions for each row within a given Board, stopping early if the search is stopped.
+     * @param board a Board Object.
+     * @param context the SolveContext of the solve
+     * @return a SolutionMatrix Object, or null if the search was stopped before every row's solutions were found
+     */
+    protected SolutionMatrix findAllPossibleSolutions(Board board, SolveContext context) {
+        SolutionMatrix allSolutions = new SolutionMatrix(board.height());
+        for (Clue clue : board.getRowClues()) {
+            SolutionSet solutions = findPossibleRowSolutions(clue, board.width(), context);
+            if (solutions == null) {
+                return null;
+            }
+            allSolutions.add(solutions);
+        }
+        return allSolutions;
+    }
+
+    /**
+     * Finds all the possible solutions for a given row based on its Clue, from the LineCandidateCache if there is one
+     * and it holds them.
+     * @param clue a Clue Object
+     * @param rowLength the length of the row
+     * @return a SolutionSet of all possible solutions of this row, which may be changed freely
+     */
+    protected SolutionSet findPossibleRowSolutions(Clue clue, int rowLength) {
+        return findPossibleRowSolutions(clue, rowLength, new SolveContext(SolveLimits.NONE));
+    }
+
+    /**
+     * Finds all the possible solutions for a given row based on its Clue, from the LineCandidateCache if there is one
+     * and it holds them, stopping early if the search is stopped.
+     * @param clue a Clue Object
+     * @param rowLength the length of the row
+     * @param context the SolveContext of the solve
+     * @return a SolutionSet of all possible solutions of this row, which may be changed freely, or null if the search
+     * was stopped before they were all found
+     */
+    protected SolutionSet findPossibleRowSolutions(Clue clue, int rowLength, SolveContext context) {
+        if (candidateCache == null) {
+            return collectSolutions(new PlacementIterator(clue, rowLength), rowLength, context);
+        }
+        SolutionSet cached = candidateCache.get(clue, rowLength);
+        if (cached != null) {
+            metrics.recordCacheHit();
+            return new SolutionSet(cached);
+        }
+        metrics.recordCacheMiss();
+        SolutionSet solutions = collectSolutions(new PlacementIterator(clue, rowLength), rowLength, context);
+        // only a whole set of solutions may be kept
+        if (solutions != null) {
+            candidateCache.put(clue, rowLength, solutions);
+        }
+        return solutions;
+    }
+
+    /**
+     * Gathers the solutions given by an Iterator into a SolutionSet, checking every CHECK_INTERVAL solutions whether
+     * the search has been stopped.
+     * @param solutions an Iterator of LineSolutions, such as a PlacementIterator
+     * @param rowLength the length of the row
+     * @param context the SolveContext of the solve
+     * @return a SolutionSet of every solution given by solutions, or null if the search was stopped first
+     */
+    protected SolutionSet collectSolutions(Iterator<LineSolution> solutions, int rowLength, SolveContext context) {
+        SolutionSet possibleSolutions = new SolutionSet(rowLength);
+        if (!context.check()) {
+            return null;
+        }
+        while (solutions.hasNext()) {
+            possibleSolutions.add(solutions.next());
+            if ((possibleSolutions.size() & (CHECK_INTERVAL - 1)) == 0 && !context.check()) {
+                return null;
+            }
+        }
+        return possibleSolutions;
+    }
+
+    /**
+     * Finds the indices which correspond to the rightmost solving of this row.
+     * @param clue a Clue Object for the row
+     * @param rowLength the length of the row
+     * @return an Array of ints corresponding to the rightmost index of each Clue
+     */
+    protected int[] getRightmostIndices(Clue clue, int rowLength) {
+        // stores the rightmost indices
+        int[] rightmostIndices = new int[clue.getClue().length];
+        int currentIndex = rowLength;
+        // go through each clue and find its index
+        for (int j = clue.getClue().length - 1; j >= 0; j--) {
+            int currentClue = clue.getClue()[j].getValue();
+            currentIndex -= currentClue;
+            rightmostIndices[j] = currentIndex;
+            // account for at least 1 space
+            currentIndex--;
+        }
+        return rightmostIndices;
+    }
+
+    /**
+     * Edits the specific row based on the given Array solution. Also tells the listener about the change.
+     * @param row an int corresponding to a specific row
+     * @param solution a LineSolution Object corresponding to row
+     */
+    protected void editRowFromSolution(int row, LineSolution solution) {
+        for (int i = 0; i < solution.size(); i++) {
+            if (solution.isFilled(i)) {
+                board.fillTile(row, i);
+            }
+            else board.slashTile(row, i);
+        }
+        boardChanged();
+    }
+
+    /**
+     * @return true if a SolveListener is watching this algorithm
+     */
+    protected boolean hasListener() {
+        return listener != null;
+    }
+
+    /**
+     * Tells the listener, if there is one, that the Board has changed.
+     */
+    protected void boardChanged() {
+        if (listener != null) {
+            listener.boardChanged(board);
+        }
+    }
+
+    /**
+     * Gets the number of possible solutions for each row.
+     * @param solutions a SolutionMatrix Object
+     * @return an Array of ints with the number of possible solutions for each row
+     */
+    protected int[] getMaxRowSolutionIndices(SolutionMatrix solutions) {
+        int[] maxSolutionIndices = new int[solutions.size()];
+        for (int i = 0; i < solutions.size(); i++) {
+            maxSolutionIndices[i] = solutions.get(i).size() - 1;
+        }
+        return maxSolutionIndices;
+    }
+
+    /**
+     * Checks all the columns in the board for correctness, returning true if the Board is solved correctly
+     * @return true if the Board is solved and false if otherwise
+     */
+    protected boolean checkAll() {
+        long start = startPhase();
+        for (int i = 0; i < board.width(); i++) {
+            board.checkCol(i);
+        }
+        boolean solved = board.isSolved();
+        endPhase(SolverMetrics.Phase.CHECKING, start);
+        return solved;
+    }
+}
@@ -0,0 +1,152 @@
+package nonograms;
+
+/**
+ * A ColumnValidator keeps track of whether the columns of a Board can still match their Clues while rows are placed
+ * one at a time from the top. For every column it remembers, after each placed row, how many of the Clue's numbers are
+ * complete and how long the group of filled Tiles currently being counted is.
+ *
+ * Placing a row only recomputes the columns whose Tile differs from the last solution placed in that row, or whose
+ * count above that row has changed since, so the work done is proportional to what changed rather than to the size of
+ * the Board. A column is rejected as soon as its Tiles so far disagree with its Clue, or the rows left are too few to
+ * fit the rest of its Clue, so a bad row is found without placing any of the rows below it.
+ *
+ * @author Ben Stone
+ */
+public class ColumnValidator {
+    // marks a column whose Tiles so far can no longer match its Clue
+    private static final int INVALID = -1;
+
+    // the lengths of the groups of each column's Clue
+    private int[][] lengths;
+    // needed[c][j] is the fewest Tiles that fit groups j onwards of column c's Clue, including the gaps between them
+    private int[][] needed;
+    // the number of rows in the Board
+    private int height;
+    // completed[d][c] is the number of groups of column c completed in the first d rows, or INVALID
+    private int[][] completed;
+    // running[d][c] is the length of the group of column c still being counted after the first d rows
+    private int[][] running;
+    // invalidCount[d] is the number of columns which are INVALID after the first d rows
+    private int[] invalidCount;
+    // the solution last placed in each row, or null if the row has never been placed
+    private LineSolution[] placed;
+    // changed[d] marks the columns whose counts after the first d rows changed since row d was last placed
+    private LineSolution[] changed;
+
+    /**
+     * Creates a ColumnValidator for a Board with the given column Clues and height.
+     * @param colClues the Clues for each column of the Board
+     * @param height the number of rows in the Board
+     */
+    public ColumnValidator(Clue[] colClues, int height) {
+        this.height = height;
+        int width = colClues.length;
+        lengths = new int[width][];
+        needed = new int[width][];
+        for (int c = 0; c < width; c++) {
+            lengths[c] = colClues[c].getGroupLengths();
+            needed[c] = new int[lengths[c].length + 1];
+            for (int j = lengths[c].length - 1; j >= 0; j--) {
+                needed[c][j] = lengths[c][j] + needed[c][j + 1] + (j < lengths[c].length - 1 ? 1 : 0);
+            }
+        }
+        completed = new int[height + 1][width];
+        running = new int[height + 1][width];
+        invalidCount = new int[height + 1];
+        placed = new LineSolution[height];
+        changed = new LineSolution[height + 1];
+        for (int d = 0; d <= height; d++) {
+            changed[d] = new LineSolution(width);
+        }
+        // columns with nothing placed are only invalid if their Clue cannot fit in the Board at all
+        for (int c = 0; c < width; c++) {
+            if (needed[c][0] > height) {
+                completed[0][c] = INVALID;
+                invalidCount[0]++;
+            }
+        }
+    }
+
+    /**
+     * Places a solution in the given row, below the solutions already placed in the rows above it. Any solutions
+     * placed in the rows below are no longer taken into account.
+     * @param row an int index of a row, with every row above it already placed
+     * @param solution the LineSolution to place in the row
+     * @return true if every column can still match its Clue with this row placed, false otherwise
+     */
+    public boolean placeRow(int row, LineSolution solution) {
+        int width = lengths.length;
+        // work out which columns need their counts recomputed
+        LineSolution recompute;
+        if (placed[row] == null) {
+            recompute = new LineSolution(width);
+            recompute.flip();
+        }
+        else {
+            recompute = new LineSolution(solution);
+            recompute.xor(placed[row]);
+            recompute.or(changed[row]);
+        }
+        changed[row] = new LineSolution(width);
+        for (int c = recompute.nextFilled(0); c >= 0; c = recompute.nextFilled(c + 1)) {
+            boolean wasInvalid = completed[row + 1][c] == INVALID;
+            int oldCompleted = completed[row + 1][c];
+            int oldRunning = running[row + 1][c];
+            step(c, row, solution.isFilled(c));
+            boolean isInvalid = completed[row + 1][c] == INVALID;
+            if (wasInvalid != isInvalid) {
+                invalidCount[row + 1] += isInvalid ? 1 : -1;
+            }
+            if (placed[row] == null || oldCompleted != completed[row + 1][c] || oldRunning != running[row + 1][c]) {
+                changed[row + 1].setFilled(c);
+            }
+        }
+        placed[row] = new LineSolution(solution);
+        return invalidCount[row + 1] == 0;
+    }
+
+    /**
+     * Works out the counts of column c after the first row + 1 rows, from its counts after the first row rows.
+     * @param c an int index of a column
+     * @param row an int index of the row being placed
+     * @param filled true if the Tile of column c in the row is filled
+     */
+    private void step(int c, int row, boolean filled) {
+        int groups = completed[row][c];
+        int run = running[row][c];
+        int[] clue = lengths[c];
+        if (groups != INVALID) {
+            if (filled) {
+                run++;
+                // a group too many, or a group too long
+                if (groups >= clue.length || run > clue[groups]) {
+                    groups = INVALID;
+                }
+            }
+            else if (run > 0) {
+                // a group ended before it was long enough
+                if (run != clue[groups]) {
+                    groups = INVALID;
+                }
+                else {
+                    groups++;
+                    run = 0;
+                }
+            }
+        }
+        // the rest of the Clue must still fit in the rows left
+        if (groups != INVALID) {
+            int rowsLeft = height - row - 1;
+            int stillNeeded;
+            if (run > 0) {
+                stillNeeded = clue[groups] - run + (groups + 1 < clue.length ? 1 + needed[c][groups + 1] : 0);
+            }
+            else stillNeeded = needed[c][groups];
+            if (stillNeeded > rowsLeft) {
+                groups = INVALID;
+            }
+        }
+        completed[row + 1][c] = groups;
+        running[row + 1][c] = groups == INVALID ? 0 : run;
+    }
+}
@@ -0,0 +1,251 @@
+package nonograms;
+
+import java.util.Arrays;
+
+/**
+ * The ConstraintPropagationAlgorithm class solves a Board by repeatedly working out which Tiles of each row and column
+ * are forced by its Clue and the Tiles already known. A Tile which is filled in every solution of its row or column
+ * agreeing with the known Tiles must be filled, and a Tile which is filled in none of them must be slashed. Every newly
+ * known Tile in turn narrows down the crossing line, so this is repeated until nothing changes. The forced Tiles of a
+ * line are found by a LineSolver, without going through the line's possible solutions.
+ *
+ * Most puzzles are fully solved by this propagation alone. When it stalls, the algorithm picks the first Tile which is
+ * still unknown, tries filling and then slashing it and propagates again, backing out whenever a row or column is left
+ * without any possible solution.
+ *
+ * @author Ben Stone
+ */
+public class ConstraintPropagationAlgorithm extends BruteForceAlgorithm {
+    private Board board;
+    // finds the forced Tiles of each row and column
+    private LineSolver lineSolver;
+
+    /**
+     * Creates a ConstraintPropagationAlgorithm which solves the given Board without reporting its progress.
+     * @param board a Board Object
+     */
+    public ConstraintPropagationAlgorithm(Board board) {
+        this(board, null);
+    }
+
+    /**
+     * Creates a ConstraintPropagationAlgorithm which solves the given Board, telling the listener whenever the Board
+     * changes.
+     * @param board a Board Object
+     * @param listener a SolveListener, or null to not report progress
+     */
+    public ConstraintPropagationAlgorithm(Board board, SolveListener listener) {
+        super(board, listener);
+        this.board = board;
+        lineSolver = new LineSolver();
+    }
+
+    /**
+     * Solves the given Board, stopping early if the search goes past the given limits or the calling thread is
+     * interrupted. Each time the search propagates and branches counts as a node.
+     * @param limits the SolveLimits of the search
+     * @return a SolveResult saying how the solve finished, where the Tiles known for certain are those found by
+     * propagation before the search first branched
+     */
+    @Override
+    public SolveResult solve(SolveLimits limits) {
+        SolveContext context = new SolveContext(limits);
+        // every Tile starts out unknown, which is represented by an empty Tile
+        Tile.State[][] grid = new Tile.State[board.height()][board.width()];
+        for (Tile.State[] row : grid) {
+            Arrays.fill(row, Tile.State.EMPTY);
+        }
+        long start = startPhase();
+        boolean consistent = propagate(grid, lineSolver, context);
+        endPhase(SolverMetrics.Phase.PROPAGATION, start);
+        if (!consistent) {
+            return context.finish(SolveStatus.UNSOLVABLE, toBitGrid(grid));
+        }
+        // everything propagation found without guessing is certain
+        BitGrid known = toBitGrid(grid);
+        start = startPhase();
+        Tile.State[][] solution = search(grid, context);
+        endPhase(SolverMetrics.Phase.SEARCH, start);
+        if (solution == null) {
+            return context.finish(SolveStatus.UNSOLVABLE, known);
+        }
+        editBoardFromGrid(solution);
+        if (checkAll()) {
+            return context.finish(SolveStatus.SOLVED, toBitGrid(solution));
+        }
+        else return context.finish(SolveStatus.UNSOLVABLE, known);
+    }
+
+    /**
+     * Searches for a solution with this algorithm's own LineSolver.
+     * @param grid the known state of each Tile, where an empty Tile is not yet known, edited in place
+     * @param context the SolveContext of the solve, told about every node of the search
+     * @return the fully known grid, or null if there is no solution or the search was stopped
+     */
+    protected Tile.State[][] search(Tile.State[][] grid, SolveContext context) {
+        return search(grid, lineSolver, context);
+    }
+
+    /**
+     * Propagates the known Tiles with the given LineSolver, then branches on the first unknown Tile if propagation
+     * alone did not solve the Board. Every branch is searched on the calling thread.
+     * @param grid the known state of each Tile, where an empty Tile is not yet known, edited in place
+     * @param lineSolver the LineSolver used to find forced Tiles, which must not be in use by another thread
+     * @param context the SolveContext of the solve, told about every node of the search
+     * @return the fully known grid, or null if there is no solution or the search was stopped
+     */
+    protected Tile.State[][] search(Tile.State[][] grid, LineSolver lineSolver, SolveContext context) {
+        if (!context.tick()) {
+            return null;
+        }
+        if (!propagate(grid, lineSolver, context)) {
+            context.addCandidatesPruned(1);
+            return null;
+        }
+        int[] tile = findUnknownTile(grid);
+        // every Tile is known, and propagation has made sure every row and column agrees with its Clue
+        if (tile == null) {
+            return grid;
+        }
+        // try filling it and then slashing it, each on its own copy of the grid
+        context.addCandidatesGenerated(2);
+        Tile.State[][] filled = copyGrid(grid);
+        filled[tile[0]][tile[1]] = Tile.State.FILLED;
+        Tile.State[][] solution = search(filled, lineSolver, context);
+        if (solution != null || context.isStopped()) {
+            return solution;
+        }
+        grid[tile[0]][tile[1]] = Tile.State.SLASHED;
+        return search(grid, lineSolver, context);
+    }
+
+    /**
+     * Finds the first Tile of the grid which is still unknown, going along each row from the top.
+     * @param grid the known state of each Tile
+     * @return an Array of the row and column of the Tile, or null if every Tile is known
+     */
+    protected int[] findUnknownTile(Tile.State[][] grid) {
+        for (int r = 0; r < grid.length; r++) {
+            for (int c = 0; c < grid[r].length; c++) {
+                if (grid[r][c] == Tile.State.EMPTY) {
+                    return new int[] {r, c};
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Marks the forced Tiles of every row and column, until no more Tiles can be found.
+     * @param grid the known state of each Tile, edited in place
+     * @param lineSolver the LineSolver used to find forced Tiles, which must not be in use by another thread
+     * @param context the SolveContext of the solve, told how many rounds of propagation were made
+     * @return false if some row or column was left without any possible solution, true otherwise
+     */
+    protected boolean propagate(Tile.State[][] grid, LineSolver lineSolver, SolveContext context) {
+        Clue[] rowClues = board.getRowClues();
+        Clue[] colClues = board.getColClues();
+        // only lines with a Tile that changed since they were last looked at need to be looked at again
+        boolean[] rowDirty = new boolean[grid.length];
+        boolean[] colDirty = new boolean[colClues.length];
+        Arrays.fill(rowDirty, true);
+        Arrays.fill(colDirty, true);
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            context.addPropagationRounds(1);
+            for (int r = 0; r < grid.length; r++) {
+                if (!rowDirty[r]) {
+                    continue;
+                }
+                rowDirty[r] = false;
+                Tile.State[] forced = lineSolver.solve(rowClues[r], grid[r]);
+                if (forced == null) {
+                    return false;
+                }
+                for (int c = 0; c < forced.length; c++) {
+                    if (forced[c] != Tile.State.EMPTY && grid[r][c] == Tile.State.EMPTY) {
+                        grid[r][c] = forced[c];
+                        colDirty[c] = true;
+                        changed = true;
+                    }
+                }
+            }
+            for (int c = 0; c < colClues.length; c++) {
+                if (!colDirty[c]) {
+                    continue;
+                }
+                colDirty[c] = false;
+                Tile.State[] forced = lineSolver.solve(colClues[c], getColumn(grid, c));
+                if (forced == null) {
+                    return false;
+                }
+                for (int r = 0; r < forced.length; r++) {
+                    if (forced[r] != Tile.State.EMPTY && grid[r][c] == Tile.State.EMPTY) {
+                        grid[r][c] = forced[r];
+                        rowDirty[r] = true;
+                        changed = true;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Edits every Tile of the Board to match the given grid, then tells the listener about the change.
+     * @param grid the fully known state of each Tile
+     */
+    private void editBoardFromGrid(Tile.State[][] grid) {
+        for (int r = 0; r < grid.length; r++) {
+            for (int c = 0; c < grid[r].length; c++) {
+                if (grid[r][c] == Tile.State.FILLED) {
+                    board.fillTile(r, c);
+                }
+                else board.slashTile(r, c);
+            }
+            board.checkRow(r);
+        }
+        boardChanged();
+    }
+
+    /**
+     * Gets a copy of a column of the grid.
+     * @param grid the known state of each Tile
+     * @param c an int index of a column
+     * @return an Array of the states of column c from top to bottom
+     */
+    private Tile.State[] getColumn(Tile.State[][] grid, int c) {
+        Tile.State[] column = new Tile.State[grid.length];
+        for (int r = 0; r < grid.length; r++) {
+            column[r] = grid[r][c];
+        }
+        return column;
+    }
+
+    /**
+     * @param grid the known state of each Tile
+     * @return a BitGrid with the same Tiles as grid
+     */
+    protected BitGrid toBitGrid(Tile.State[][] grid) {
+        BitGrid bits = new BitGrid(board.width(), board.height());
+        for (int r = 0; r < grid.length; r++) {
+            for (int c = 0; c < grid[r].length; c++) {
+                bits.setState(r, c, grid[r][c]);
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * @param grid the known state of each Tile
+     * @return a deep copy of grid
+     */
+    protected Tile.State[][] copyGrid(Tile.State[][] grid) {
+        Tile.State[][] copy = new Tile.State[grid.length][];
+        for (int r = 0; r < grid.length; r++) {
+            copy[r] = grid[r].clone();
+        }
+        return copy;
+    }
+}
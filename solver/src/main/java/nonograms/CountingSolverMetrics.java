@@ -0,0 +1,221 @@
+package nonograms;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * CountingSolverMetrics keep everything reported to them in LongAdder counters and Histograms, which spread updates
+ * from different threads over separate cells, so workers solving at the same time do not slow each other down by
+ * reporting. The counters can be read at any time while solves are running, or handed to a MetricsExporter.
+ *
+ * @author Ben Stone
+ */
+public class CountingSolverMetrics implements SolverMetrics, SolverMetricsMXBean {
+    // the time spent in each Phase, indexed by ordinal
+    private LongAdder[] phaseNanos;
+    // the number of solves finished with each SolveStatus, indexed by ordinal
+    private LongAdder[] solves;
+    private LongAdder nodes;
+    private LongAdder cacheHits;
+    private LongAdder cacheMisses;
+    private Histogram lineCandidates;
+    private Histogram backtrackDepth;
+    private Histogram solveNanos;
+
+    public CountingSolverMetrics() {
+        phaseNanos = newAdders(Phase.values().length);
+        solves = newAdders(SolveStatus.values().length);
+        nodes = new LongAdder();
+        cacheHits = new LongAdder();
+        cacheMisses = new LongAdder();
+        lineCandidates = new Histogram();
+        backtrackDepth = new Histogram();
+        solveNanos = new Histogram();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void addPhaseTime(Phase phase, long nanos) {
+        phaseNanos[phase.ordinal()].add(nanos);
+    }
+
+    @Override
+    public void recordLineCandidates(int candidates) {
+        lineCandidates.record(candidates);
+    }
+
+    @Override
+    public void recordBacktrack(int depth) {
+        backtrackDepth.record(depth);
+    }
+
+    @Override
+    public void recordCacheHit() {
+        cacheHits.increment();
+    }
+
+    @Override
+    public void recordCacheMiss() {
+        cacheMisses.increment();
+    }
+
+    @Override
+    public void recordSolve(SolveResult result) {
+        solves[result.getStatus().ordinal()].increment();
+        nodes.add(result.getNodes());
+        solveNanos.record(result.getElapsedNanos());
+    }
+
+    /**
+     * Sets every counter back to zero. Anything reported while this is running may or may not be counted.
+     */
+    @Override
+    public void reset() {
+        for (LongAdder adder : phaseNanos) {
+            adder.reset();
+        }
+        for (LongAdder adder : solves) {
+            adder.reset();
+        }
+        nodes.reset();
+        cacheHits.reset();
+        cacheMisses.reset();
+        lineCandidates.reset();
+        backtrackDepth.reset();
+        solveNanos.reset();
+    }
+
+    /**
+     * @param phase a Phase of a solve
+     * @return the time spent in phase, in nanoseconds
+     */
+    public long getPhaseNanos(Phase phase) {
+        return phaseNanos[phase.ordinal()].sum();
+    }
+
+    /**
+     * @param status a SolveStatus
+     * @return the number of solves which finished with status
+     */
+    public long getSolves(SolveStatus status) {
+        return solves[status.ordinal()].sum();
+    }
+
+    /**
+     * @return the Histogram of the number of possible solutions found for each line
+     */
+    public Histogram getLineCandidates() {
+        return lineCandidates;
+    }
+
+    /**
+     * @return the Histogram of the depths the search was at when it went back up
+     */
+    public Histogram getBacktrackDepth() {
+        return backtrackDepth;
+    }
+
+    /**
+     * @return the Histogram of how long each solve took, in nanoseconds
+     */
+    public Histogram getSolveNanos() {
+        return solveNanos;
+    }
+
+    @Override
+    public long getSolves() {
+        long total = 0;
+        for (LongAdder count : solves) {
+            total += count.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public long getSolved() {
+        return getSolves(SolveStatus.SOLVED);
+    }
+
+    @Override
+    public long getStopped() {
+        return getSolves(SolveStatus.TIMED_OUT) + getSolves(SolveStatus.BUDGET_EXHAUSTED) +
+                getSolves(SolveStatus.CANCELLED);
+    }
+
+    @Override
+    public long getNodes() {
+        return nodes.sum();
+    }
+
+    @Override
+    public long getGenerationNanos() {
+        return getPhaseNanos(Phase.GENERATION);
+    }
+
+    @Override
+    public long getFilteringNanos() {
+        return getPhaseNanos(Phase.FILTERING);
+    }
+
+    @Override
+    public long getPropagationNanos() {
+        return getPhaseNanos(Phase.PROPAGATION);
+    }
+
+    @Override
+    public long getSearchNanos() {
+        return getPhaseNanos(Phase.SEARCH);
+    }
+
+    @Override
+    public long getCheckingNanos() {
+        return getPhaseNanos(Phase.CHECKING);
+    }
+
+    @Override
+    public double getMeanLineCandidates() {
+        return lineCandidates.getMean();
+    }
+
+    @Override
+    public double getMeanBacktrackDepth() {
+        return backtrackDepth.getMean();
+    }
+
+    @Override
+    public long getMaxBacktrackDepth() {
+        return backtrackDepth.getMax();
+    }
+
+    @Override
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    @Override
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    @Override
+    public double getCacheHitRate() {
+        long hits = getCacheHits();
+        long lookups = hits + getCacheMisses();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * @param count the number of LongAdders
+     * @return an Array of new LongAdders
+     */
+    private static LongAdder[] newAdders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+}
@@ -0,0 +1,122 @@
+package nonograms;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * A Histogram counts non-negative values in buckets by powers of two, where bucket 0 holds the zeros and bucket b holds
+ * the values from 2^(b - 1) up to 2^b - 1. Every bucket is a LongAdder, so any number of threads can record values at
+ * once without contending on a single counter.
+ *
+ * @author Ben Stone
+ */
+public class Histogram {
+    // one bucket for zero and one for each bit length of a long
+    private static final int BUCKETS = 65;
+
+    private LongAdder[] buckets;
+    private LongAdder sum;
+    private LongAccumulator max;
+
+    public Histogram() {
+        buckets = new LongAdder[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+        sum = new LongAdder();
+        max = new LongAccumulator(new LongBinaryOperator() {
+            @Override
+            public long applyAsLong(long left, long right) {
+                return Math.max(left, right);
+            }
+        }, 0);
+    }
+
+    /**
+     * Counts a value.
+     * @param value a non-negative long, where negative values are counted as zero
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        buckets[64 - Long.numberOfLeadingZeros(value)].increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Forgets every value counted so far.
+     */
+    public void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        sum.reset();
+        max.reset();
+    }
+
+    /**
+     * @return the number of values counted
+     */
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    /**
+     * @return the total of the values counted
+     */
+    public long getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * @return the largest value counted, or 0 if there are none
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @return the mean of the values counted, or 0 if there are none
+     */
+    public double getMean() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) getSum() / count;
+    }
+
+    /**
+     * @return the number of values counted in each bucket
+     */
+    public long[] getBuckets() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return counts;
+    }
+
+    /**
+     * @return the count, mean and maximum, followed by the count of every bucket which is not empty, labelled by the
+     * lowest value it holds
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        text.append("count=").append(getCount()).append(" mean=").append(String.format(Locale.ROOT, "%.2f", getMean()));
+        text.append(" max=").append(getMax());
+        long[] counts = getBuckets();
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts[i] > 0) {
+                text.append(' ').append(i == 0 ? 0 : 1L << (i - 1)).append("+:").append(counts[i]);
+            }
+        }
+        return text.toString();
+    }
+}
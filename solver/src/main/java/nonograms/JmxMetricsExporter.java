@@ -0,0 +1,71 @@
+package nonograms;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * A JmxMetricsExporter registers CountingSolverMetrics with the platform MBeanServer as a SolverMetricsMXBean, where
+ * JMX clients read their counters live. Exporting replaces whatever was registered under the same name before.
+ *
+ * @author Ben Stone
+ */
+public class JmxMetricsExporter implements MetricsExporter {
+    // the name the metrics are registered under unless another is given
+    public static final String DEFAULT_NAME = "nonograms:type=SolverMetrics";
+
+    private ObjectName name;
+
+    /**
+     * Creates a JmxMetricsExporter which registers metrics under DEFAULT_NAME.
+     */
+    public JmxMetricsExporter() {
+        this(DEFAULT_NAME);
+    }
+
+    /**
+     * Creates a JmxMetricsExporter which registers metrics under the given name.
+     * @param name a JMX ObjectName, such as nonograms:type=SolverMetrics
+     * @throws IllegalArgumentException if name is not a valid ObjectName
+     */
+    public JmxMetricsExporter(String name) throws IllegalArgumentException {
+        try {
+            this.name = new ObjectName(name);
+        }
+        catch (JMException e) {
+            throw new IllegalArgumentException(name + " is not a valid ObjectName!", e);
+        }
+    }
+
+    @Override
+    public void export(CountingSolverMetrics metrics) throws IOException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(metrics, name);
+        }
+        catch (JMException e) {
+            throw new IOException("The metrics could not be registered as " + name + "!", e);
+        }
+    }
+
+    /**
+     * Removes whatever metrics are registered under this exporter's name.
+     * @throws IOException if the metrics could not be removed
+     */
+    public void unexport() throws IOException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        }
+        catch (JMException e) {
+            throw new IOException("The metrics could not be removed from " + name + "!", e);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package nonograms;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A LineCandidateCache holds the possible solutions of lines by their Clue and length, so lines which share both, in
+ * the same puzzle or across a whole corpus, only have their solutions generated once. Clues are compared by their
+ * numbers alone, so a Clue of a lone zero matches any other.
+ *
+ * The cache is bounded by the number of longs its entries take up, counting both the longs each SolutionSet holds and
+ * an estimate of the Objects behind every entry, so lines with no solutions still take room. When it is full the least
+ * recently used entries are evicted first. Cached SolutionSets are read only, so they are safe to hand to any number of threads,
+ * which copy them before changing them. A LineCandidateCache is thread-safe, though two threads missing on the same
+ * line at once may both generate its solutions.
+ *
+ * @author Ben Stone
+ */
+public class LineCandidateCache {
+    // the longs charged to every entry on top of its solutions, covering the map entry, the Key and its numbers, and
+    // the SolutionSet and the header of its array, which come to roughly 128 bytes on a 64 bit JVM
+    static final int ENTRY_OVERHEAD_WORDS = 16;
+
+    // the most longs the cached entries may take up between them
+    private long maxWords;
+    // the number of longs the cached entries currently take up
+    private long words;
+    // the cached SolutionSets in order of use, least recently used first
+    private LinkedHashMap<Key, SolutionSet> entries;
+    private LongAdder hits;
+    private LongAdder misses;
+    private LongAdder evictions;
+
+    /**
+     * Creates an empty LineCandidateCache.
+     * @param maxWords the most longs the cached entries may take up between them
+     * @throws IllegalArgumentException if maxWords is not positive
+     */
+    public LineCandidateCache(long maxWords) throws IllegalArgumentException {
+        if (maxWords < 1) {
+            throw new IllegalArgumentException("The cache must have room for at least one word!");
+        }
+        this.maxWords = maxWords;
+        entries = new LinkedHashMap<>(16, 0.75f, true);
+        hits = new LongAdder();
+        misses = new LongAdder();
+        evictions = new LongAdder();
+    }
+
+    /**
+     * Looks up the possible solutions of a line.
+     * @param clue the Clue of the line
+     * @param length the length of the line
+     * @return the read only SolutionSet cached for the line, or null if there is none
+     */
+    public SolutionSet get(Clue clue, int length) {
+        SolutionSet cached;
+        synchronized (this) {
+            cached = entries.get(new Key(clue, length));
+        }
+        if (cached == null) {
+            misses.increment();
+        }
+        else hits.increment();
+        return cached;
+    }
+
+    /**
+     * Caches the possible solutions of a line, evicting the least recently used lines until they fit. Solutions
+     * which would not fit in an empty cache are not cached.
+     * @param clue the Clue of the line
+     * @param length the length of the line
+     * @param solutions every possible solution of the line, which is copied
+     * @return the read only SolutionSet now cached for the line, or a read only copy of solutions if it is too big
+     */
+    public SolutionSet put(Clue clue, int length, SolutionSet solutions) {
+        SolutionSet cached = solutions.isReadOnly() ? solutions : solutions.readOnlyCopy();
+        if (cost(cached) > maxWords) {
+            return cached;
+        }
+        synchronized (this) {
+            SolutionSet previous = entries.put(new Key(clue, length), cached);
+            if (previous != null) {
+                words -= cost(previous);
+            }
+            words += cost(cached);
+            Iterator<SolutionSet> oldest = entries.values().iterator();
+            while (words > maxWords) {
+                words -= cost(oldest.next());
+                oldest.remove();
+                evictions.increment();
+            }
+        }
+        return cached;
+    }
+
+    /**
+     * Removes every cached line, without resetting the statistics.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        words = 0;
+    }
+
+    /**
+     * @return the number of lines cached
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the number of longs the cached entries take up between them, including their overhead
+     */
+    public synchronized long wordCount() {
+        return words;
+    }
+
+    /**
+     * @return the number of lookups which found their line cached
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of lookups which did not find their line cached
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of lines evicted to make room for others
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @param solutions a cached SolutionSet
+     * @return the number of longs the entry holding solutions is charged, which is never zero
+     */
+    private static long cost(SolutionSet solutions) {
+        return solutions.wordCount() + ENTRY_OVERHEAD_WORDS;
+    }
+
+    /**
+     * A Key is the numbers of a Clue together with the length of its line.
+     */
+    private static class Key {
+        private int[] lengths;
+        private int lineLength;
+        private int hash;
+
+        Key(Clue clue, int lineLength) {
+            this.lengths = clue.getGroupLengths();
+            this.lineLength = lineLength;
+            hash = 31 * Arrays.hashCode(lengths) + lineLength;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return lineLength == key.lineLength && Arrays.equals(lengths, key.lengths);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package nonograms;
+
+import java.util.Arrays;
+
+/**
+ * A LineSolution represents a solution for a given row or column. A solution can have representations of Tiles which
+ * are either known to be filled or unknown.
+ *
+ * The Tiles are stored as bits packed into longs, one bit per Tile with the Tile at index i being bit i % 64 of word
+ * i / 64, so that whole solutions can be compared and combined a word at a time.
+ *
+ * @author Ben Stone
+ */
+
+public class LineSolution {
+    // the number of bits in each word of the solution
+    static final int WORD_SIZE = 64;
+
+    // the bits of this solution, where a set bit means the Tile is filled
+    private long[] words;
+    // the number of Tiles in this solution
+    private int size;
+
+    public LineSolution(int size) {
+        this.size = size;
+        words = new long[wordsFor(size)];
+    }
+
+    /**
+     * Creates a copy of the given LineSolution.
+     * @param other a LineSolution Object
+     */
+    public LineSolution(LineSolution other) {
+        size = other.size;
+        words = other.words.clone();
+    }
+
+    /**
+     * Creates a LineSolution from a copy of the words starting at offset in the given Array.
+     * @param size the number of Tiles in the solution
+     * @param source an Array holding the words of the solution
+     * @param offset the index in source of the solution's first word
+     */
+    LineSolution(int size, long[] source, int offset) {
+        this.size = size;
+        words = Arrays.copyOfRange(source, offset, offset + wordsFor(size));
+    }
+
+    /**
+     * @param size the number of Tiles in a line
+     * @return the number of words needed to hold a line of the given size
+     */
+    static int wordsFor(int size) {
+        return (size + WORD_SIZE - 1) / WORD_SIZE;
+    }
+
+    /**
+     * @return the size of this LineSolution
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the words holding this LineSolution's bits
+     */
+    public long[] getWords() {
+        return words;
+    }
+
+    /**
+     * @param index an int index within this LineSolution
+     * @return true if the LineSolution at index is filled
+     * @throws IndexOutOfBoundsException if index is not valid for this LineSolution
+     */
+    public boolean isFilled(int index) throws IndexOutOfBoundsException {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException(index + " is not a valid index for this LineSolution!");
+        }
+        else return (words[index / WORD_SIZE] & (1L << index)) != 0;
+    }
+
+    /**
+     * Sets the representation at index to be filled.
+     * @param index an int index
+     * @throws IndexOutOfBoundsException if index is not in this solution's length
+     */
+    public void setFilled(int index) throws IndexOutOfBoundsException {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException(index + " is not a valid index for this solution!");
+        }
+        words[index / WORD_SIZE] |= 1L << index;
+    }
+
+    /**
+     * Sets the representation of every index from start (inclusive) to end (exclusive) to be filled.
+     * @param start the first int index to fill
+     * @param end the int index after the last one to fill
+     * @throws IndexOutOfBoundsException if start to end is not a range within this solution's length
+     */
+    public void setFilled(int start, int end) throws IndexOutOfBoundsException {
+        if (start < 0 || end > size() || start > end) {
+            throw new IndexOutOfBoundsException(start + " to " + end + " is not a valid range for this solution!");
+        }
+        for (int i = start; i < end; i++) {
+            words[i / WORD_SIZE] |= 1L << i;
+        }
+    }
+
+    /**
+     * @param from the int index to start looking from
+     * @return the index of the first filled Tile at or after from, or -1 if there is none
+     */
+    public int nextFilled(int from) {
+        if (from >= size) {
+            return -1;
+        }
+        int w = from / WORD_SIZE;
+        long word = words[w] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                int index = w * WORD_SIZE + Long.numberOfTrailingZeros(word);
+                return index < size ? index : -1;
+            }
+            if (++w == words.length) {
+                return -1;
+            }
+            word = words[w];
+        }
+    }
+
+    /**
+     * @return the number of filled Tiles in this LineSolution
+     */
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Keeps only the Tiles which are filled in both this and the given LineSolution.
+     * @param other a LineSolution of the same size
+     */
+    public void and(LineSolution other) {
+        for (int i = 0; i < words.length; i++) {
+            words[i] &= other.words[i];
+        }
+    }
+
+    /**
+     * Fills every Tile which is filled in the given LineSolution.
+     * @param other a LineSolution of the same size
+     */
+    public void or(LineSolution other) {
+        for (int i = 0; i < words.length; i++) {
+            words[i] |= other.words[i];
+        }
+    }
+
+    /**
+     * Keeps only the Tiles which are filled in exactly one of this and the given LineSolution.
+     * @param other a LineSolution of the same size
+     */
+    public void xor(LineSolution other) {
+        for (int i = 0; i < words.length; i++) {
+            words[i] ^= other.words[i];
+        }
+    }
+
+    /**
+     * Unfills every Tile which is filled in the given LineSolution.
+     * @param other a LineSolution of the same size
+     */
+    public void andNot(LineSolution other) {
+        for (int i = 0; i < words.length; i++) {
+            words[i] &= ~other.words[i];
+        }
+    }
+
+    /**
+     * @param other a LineSolution of the same size
+     * @return true if every Tile filled in other is also filled in this LineSolution
+     */
+    public boolean containsAll(LineSolution other) {
+        for (int i = 0; i < words.length; i++) {
+            if ((words[i] & other.words[i]) != other.words[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param other a LineSolution of the same size
+     * @return true if any Tile is filled in both this and the given LineSolution
+     */
+    public boolean intersects(LineSolution other) {
+        for (int i = 0; i < words.length; i++) {
+            if ((words[i] & other.words[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Flips every Tile of this LineSolution, so filled Tiles become unknown and unknown Tiles become filled.
+     */
+    public void flip() {
+        for (int i = 0; i < words.length; i++) {
+            words[i] = ~words[i];
+        }
+        // keep the unused bits of the last word clear so equals and cardinality stay correct
+        if (size % WORD_SIZE != 0) {
+            words[words.length - 1] &= (1L << size) - 1;
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof LineSolution)) {
+            return false;
+        }
+        else return size == ((LineSolution) other).size && Arrays.equals(words, ((LineSolution) other).words);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * size + Arrays.hashCode(words);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder str = new StringBuilder("[");
+        for (int i = 0; i < size(); i++) {
+            str.append(isFilled(i) ? "1" : "0");
+            if (i != size() - 1) {
+                str.append(", ");
+            }
+        }
+        return str.append("]").toString();
+    }
+}
@@ -0,0 +1,217 @@
+package nonograms;
+
+/**
+ * A LineSolver finds every Tile of a row or column which is forced by the row or column's Clue and the Tiles already
+ * known, without going through the possible solutions one at a time.
+ *
+ * It works out, from the left, which numbers of the Clue can be placed within each prefix of the line, and from the
+ * right, which numbers can be placed within each suffix. A Tile can be slashed if some prefix ending there and some
+ * suffix starting there fit the whole Clue between them, and can be filled if some number can cover it with the
+ * Tiles before and after fitting the rest of the Clue. This takes time proportional to the length of the line times
+ * the number of numbers in its Clue, whatever the size of the line.
+ *
+ * countSolutions counts the solutions agreeing with the known Tiles in the same way, which tells a search how
+ * constrained a line still is.
+ *
+ * A LineSolver reuses its working storage between calls, so it should not be shared between threads.
+ *
+ * @author Ben Stone
+ */
+public class LineSolver {
+    // the most solutions countSolutions counts, which is small enough that adding two counts cannot overflow
+    public static final long MAX_COUNT = Long.MAX_VALUE / 2;
+
+    // prefix[j][i] is true if the first j numbers fit in the first i Tiles of the padded line with Tile i - 1 slashed
+    private boolean[][] prefix;
+    // suffix[j][i] is true if numbers j onwards fit from Tile i of the padded line onwards with Tile i slashed
+    private boolean[][] suffix;
+    // whether each Tile of the padded line may be slashed, and may be filled
+    private boolean[] canEmpty, canFill;
+    // the number of Tiles before each index of the padded line which cannot be filled
+    private int[] unfillableBefore;
+    // running count of the ways each Tile of the padded line can be covered by a number
+    private int[] coverDelta;
+    // ways[j][i] is the number of ways numbers j onwards fit from Tile i of the padded line onwards with Tile i slashed
+    private long[][] ways;
+
+    public LineSolver() {
+        prefix = new boolean[0][0];
+        suffix = new boolean[0][0];
+        canEmpty = canFill = new boolean[0];
+        unfillableBefore = coverDelta = new int[0];
+        ways = new long[0][0];
+    }
+
+    /**
+     * Finds the Tiles of a line which are the same in every solution of its Clue agreeing with the known Tiles.
+     * @param clue a Clue Object for the line
+     * @param line the known state of each Tile in the line, where an empty Tile is not yet known
+     * @return a new Array with every Tile of line which is forced filled or slashed, and every other Tile empty, or
+     * null if no solution of the Clue agrees with line
+     */
+    public Tile.State[] solve(Clue clue, Tile.State[] line) {
+        int[] lengths = clue.getGroupLengths();
+        int k = lengths.length;
+        // the line is padded with a slashed Tile on each end so every number has a slashed Tile on either side
+        int m = line.length + 2;
+        ensureCapacity(k, m);
+
+        unfillableBefore[0] = 0;
+        for (int i = 0; i < m; i++) {
+            Tile.State state = i == 0 || i == m - 1 ? Tile.State.SLASHED : line[i - 1];
+            canEmpty[i] = state != Tile.State.FILLED;
+            canFill[i] = state != Tile.State.SLASHED;
+            unfillableBefore[i + 1] = unfillableBefore[i] + (canFill[i] ? 0 : 1);
+        }
+
+        // fill in which numbers fit in each prefix, from the left
+        for (int j = 0; j <= k; j++) {
+            prefix[j][0] = j == 0;
+        }
+        for (int i = 1; i <= m; i++) {
+            for (int j = 0; j <= k; j++) {
+                boolean fits = false;
+                if (canEmpty[i - 1]) {
+                    if (prefix[j][i - 1]) {
+                        fits = true;
+                    }
+                    else if (j > 0) {
+                        int start = i - 1 - lengths[j - 1];
+                        fits = start >= 0 && fillable(start, i - 1) && prefix[j - 1][start];
+                    }
+                }
+                prefix[j][i] = fits;
+            }
+        }
+        if (!prefix[k][m]) {
+            return null;
+        }
+
+        // fill in which numbers fit in each suffix, from the right
+        for (int j = 0; j <= k; j++) {
+            suffix[j][m] = j == k;
+        }
+        for (int i = m - 1; i >= 0; i--) {
+            for (int j = k; j >= 0; j--) {
+                boolean fits = false;
+                if (canEmpty[i]) {
+                    if (suffix[j][i + 1]) {
+                        fits = true;
+                    }
+                    else if (j < k) {
+                        int end = i + 1 + lengths[j];
+                        fits = end <= m && fillable(i + 1, end) && suffix[j + 1][end];
+                    }
+                }
+                suffix[j][i] = fits;
+            }
+        }
+
+        // mark every Tile which some full solution covers with a number
+        for (int i = 0; i <= m; i++) {
+            coverDelta[i] = 0;
+        }
+        for (int j = 0; j < k; j++) {
+            for (int start = 1; start + lengths[j] < m; start++) {
+                int end = start + lengths[j];
+                if (prefix[j][start] && fillable(start, end) && suffix[j + 1][end]) {
+                    coverDelta[start]++;
+                    coverDelta[end]--;
+                }
+            }
+        }
+
+        Tile.State[] forced = new Tile.State[line.length];
+        int covers = coverDelta[0];
+        for (int i = 1; i < m - 1; i++) {
+            covers += coverDelta[i];
+            boolean couldBeFilled = covers > 0;
+            boolean couldBeEmpty = false;
+            for (int j = 0; j <= k && !couldBeEmpty; j++) {
+                couldBeEmpty = prefix[j][i + 1] && suffix[j][i];
+            }
+            if (couldBeFilled && !couldBeEmpty) {
+                forced[i - 1] = Tile.State.FILLED;
+            }
+            else if (couldBeEmpty && !couldBeFilled) {
+                forced[i - 1] = Tile.State.SLASHED;
+            }
+            else forced[i - 1] = Tile.State.EMPTY;
+        }
+        return forced;
+    }
+
+    /**
+     * Counts the solutions of a line's Clue which agree with the known Tiles, in the same time as solve takes.
+     * @param clue a Clue Object for the line
+     * @param line the known state of each Tile in the line, where an empty Tile is not yet known
+     * @return the number of solutions, which stops growing at MAX_COUNT
+     */
+    public long countSolutions(Clue clue, Tile.State[] line) {
+        int[] lengths = clue.getGroupLengths();
+        int k = lengths.length;
+        int m = line.length + 2;
+        ensureCapacity(k, m);
+        if (ways.length < k + 1 || ways[0].length < m + 1) {
+            ways = new long[Math.max(ways.length, k + 1)][Math.max(ways.length == 0 ? 0 : ways[0].length, m + 1)];
+        }
+
+        unfillableBefore[0] = 0;
+        for (int i = 0; i < m; i++) {
+            Tile.State state = i == 0 || i == m - 1 ? Tile.State.SLASHED : line[i - 1];
+            canEmpty[i] = state != Tile.State.FILLED;
+            canFill[i] = state != Tile.State.SLASHED;
+            unfillableBefore[i + 1] = unfillableBefore[i] + (canFill[i] ? 0 : 1);
+        }
+
+        // count the ways the numbers fit in each suffix, from the right, the same way suffix is filled in by solve
+        for (int j = 0; j <= k; j++) {
+            ways[j][m] = j == k ? 1 : 0;
+        }
+        for (int i = m - 1; i >= 0; i--) {
+            for (int j = k; j >= 0; j--) {
+                long count = 0;
+                if (canEmpty[i]) {
+                    count = ways[j][i + 1];
+                    if (j < k) {
+                        int end = i + 1 + lengths[j];
+                        if (end <= m && fillable(i + 1, end)) {
+                            count = Math.min(MAX_COUNT, count + ways[j + 1][end]);
+                        }
+                    }
+                }
+                ways[j][i] = count;
+            }
+        }
+        return ways[0][0];
+    }
+
+    /**
+     * @param start the first index of the padded line
+     * @param end the index after the last one
+     * @return true if every Tile of the padded line from start to end may be filled
+     */
+    private boolean fillable(int start, int end) {
+        return unfillableBefore[end] - unfillableBefore[start] == 0;
+    }
+
+    /**
+     * Grows the working storage to fit a Clue of k numbers on a padded line of m Tiles.
+     * @param k the number of numbers in the Clue
+     * @param m the length of the padded line
+     */
+    private void ensureCapacity(int k, int m) {
+        if (prefix.length < k + 1 || prefix[0].length < m + 1) {
+            int rows = Math.max(prefix.length, k + 1);
+            int cols = Math.max(prefix.length == 0 ? 0 : prefix[0].length, m + 1);
+            prefix = new boolean[rows][cols];
+            suffix = new boolean[rows][cols];
+        }
+        if (canEmpty.length < m) {
+            canEmpty = new boolean[m];
+            canFill = new boolean[m];
+            unfillableBefore = new int[m + 1];
+            coverDelta = new int[m + 1];
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package nonograms;
+
+import java.io.IOException;
+
+/**
+ * A MetricsExporter makes CountingSolverMetrics visible outside of the program, such as by writing them out as text or
+ * by publishing them over JMX.
+ *
+ * @author Ben Stone
+ */
+public interface MetricsExporter {
+
+    /**
+     * Exports the given metrics.
+     * @param metrics the CountingSolverMetrics to export
+     * @throws IOException if the metrics cannot be exported
+     */
+    void export(CountingSolverMetrics metrics) throws IOException;
+}
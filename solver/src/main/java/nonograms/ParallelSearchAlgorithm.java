@@ -0,0 +1,140 @@
+package nonograms;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The ParallelSearchAlgorithm class is a variation on the ConstraintPropagationAlgorithm which spreads its search over
+ * many threads. Every time propagation stalls, filling and slashing the first unknown Tile become two separate tasks
+ * of a ForkJoinPool, each with its own copy of the grid, so idle threads steal whole branches of the search from busy
+ * ones. Once there are BRANCHES_PER_THREAD branches for every thread of the pool, each branch is searched sequentially
+ * by the inherited search, which saves making a task for every node deep in the search.
+ *
+ * The first task to find a solution records it, and every other task stops as soon as it sees that a solution has been
+ * found. Puzzles solved by propagation alone never branch, so they run on a single thread just like the
+ * ConstraintPropagationAlgorithm.
+ *
+ * @author Ben Stone
+ */
+public class ParallelSearchAlgorithm extends ConstraintPropagationAlgorithm {
+    // each thread of the pool needs its own LineSolver, as they reuse their working storage
+    private static final ThreadLocal<LineSolver> LINE_SOLVERS = new ThreadLocal<LineSolver>() {
+        @Override
+        protected LineSolver initialValue() {
+            return new LineSolver();
+        }
+    };
+
+    // the number of branches made for each thread of the pool before the rest of each branch is searched sequentially
+    static final int BRANCHES_PER_THREAD = 8;
+
+    // the pool the search tasks run in
+    private ForkJoinPool pool;
+    // the number of guesses after which a task searches the rest of its branch on its own thread
+    private int sequentialDepth;
+    // the first solution found, or null while the search is still going
+    private AtomicReference<Tile.State[][]> solution;
+
+    /**
+     * Creates a ParallelSearchAlgorithm which solves the given Board in the common ForkJoinPool without reporting its
+     * progress.
+     * @param board a Board Object
+     */
+    public ParallelSearchAlgorithm(Board board) {
+        this(board, null, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a ParallelSearchAlgorithm which solves the given Board in the given ForkJoinPool, telling the listener
+     * whenever the Board changes.
+     * @param board a Board Object
+     * @param listener a SolveListener, or null to not report progress
+     * @param pool the ForkJoinPool to run the search in
+     */
+    public ParallelSearchAlgorithm(Board board, SolveListener listener, ForkJoinPool pool) {
+        super(board, listener);
+        this.pool = pool;
+        // the depth at which there are at least BRANCHES_PER_THREAD branches for every thread
+        sequentialDepth = 32 - Integer.numberOfLeadingZeros(pool.getParallelism() * BRANCHES_PER_THREAD - 1);
+    }
+
+    /**
+     * Searches for a solution with every thread of the pool.
+     * @param grid the known state of each Tile, where an empty Tile is not yet known, edited in place
+     * @param context the SolveContext of the solve, shared by every task of the search
+     * @return the fully known grid, or null if there is no solution or the search was stopped
+     */
+    @Override
+    protected Tile.State[][] search(Tile.State[][] grid, SolveContext context) {
+        solution = new AtomicReference<>();
+        pool.invoke(new SearchTask(grid, context, 0));
+        return solution.get();
+    }
+
+    /**
+     * Searches a branch on the calling thread, giving up as soon as another task has solved the Board.
+     * @param grid the known state of each Tile, where an empty Tile is not yet known, edited in place
+     * @param lineSolver the LineSolver of the calling thread
+     * @param context the SolveContext of the solve, shared by every task of the search
+     * @return the fully known grid, or null if there is no solution, the search was stopped or another task has
+     * already solved the Board
+     */
+    @Override
+    protected Tile.State[][] search(Tile.State[][] grid, LineSolver lineSolver, SolveContext context) {
+        if (solution.get() != null) {
+            return null;
+        }
+        else return super.search(grid, lineSolver, context);
+    }
+
+    /**
+     * A SearchTask propagates its own grid, and either records it as the solution or splits into a task for each way
+     * of marking the first unknown Tile. Once enough guesses have been made that there are several branches for every
+     * thread to steal, the rest of the branch is searched on a single thread instead.
+     */
+    private class SearchTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        // the known state of each Tile, owned by this task alone
+        private transient Tile.State[][] grid;
+        private transient SolveContext context;
+        // the number of guesses made to reach this task's grid
+        private int depth;
+
+        SearchTask(Tile.State[][] grid, SolveContext context, int depth) {
+            this.grid = grid;
+            this.context = context;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            if (depth >= sequentialDepth) {
+                Tile.State[][] found = search(grid, LINE_SOLVERS.get(), context);
+                if (found != null) {
+                    solution.compareAndSet(null, found);
+                }
+                return;
+            }
+            // another task has already solved the Board, or the search has been stopped
+            if (solution.get() != null || !context.tick()) {
+                return;
+            }
+            if (!propagate(grid, LINE_SOLVERS.get(), context)) {
+                context.addCandidatesPruned(1);
+                return;
+            }
+            int[] tile = findUnknownTile(grid);
+            if (tile == null) {
+                solution.compareAndSet(null, grid);
+                return;
+            }
+            context.addCandidatesGenerated(2);
+            Tile.State[][] filled = copyGrid(grid);
+            filled[tile[0]][tile[1]] = Tile.State.FILLED;
+            grid[tile[0]][tile[1]] = Tile.State.SLASHED;
+            invokeAll(new SearchTask(filled, context, depth + 1), new SearchTask(grid, context, depth + 1));
+        }
+    }
+}
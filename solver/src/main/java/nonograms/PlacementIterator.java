@@ -0,0 +1,169 @@
+package nonograms;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A PlacementIterator steps through every possible solution of a row or column for its Clue one at a time, rather than
+ * building all of them up front. Solutions are given in order of the starting index of each Clue number, leftmost
+ * first, with the last number moving the fastest.
+ *
+ * The iterator can also be given Tiles which are already known to be filled or slashed. Placements are then checked
+ * against them as each Clue number is placed, so no solution which disagrees with the known Tiles is ever built, and
+ * whole groups of them are skipped as soon as an earlier number cannot fit.
+ *
+ * @author Ben Stone
+ */
+public class PlacementIterator implements Iterator<LineSolution> {
+    // the values of the Clue numbers being placed
+    private int[] lengths;
+    // the size of the row or column
+    private int lineSize;
+    // Tiles which must be filled and must not be filled
+    private LineSolution mustFill, mustEmpty;
+    // the current starting index of each Clue number
+    private int[] starts;
+    // the largest starting index for each Clue number that still leaves room for the numbers after it
+    private int[] maxStarts;
+    // whether starts holds a placement which has not been returned yet
+    private boolean hasNext;
+
+    /**
+     * Creates a PlacementIterator over every solution of a row or column.
+     * @param clue a Clue Object for the row or column
+     * @param lineSize the length of the row or column
+     */
+    public PlacementIterator(Clue clue, int lineSize) {
+        this(clue, lineSize, new LineSolution(lineSize), new LineSolution(lineSize));
+    }
+
+    /**
+     * Creates a PlacementIterator over the solutions of a row or column which agree with the known Tiles.
+     * @param clue a Clue Object for the row or column
+     * @param lineSize the length of the row or column
+     * @param mustFill a LineSolution of the Tiles known to be filled
+     * @param mustEmpty a LineSolution of the Tiles known to be slashed
+     */
+    public PlacementIterator(Clue clue, int lineSize, LineSolution mustFill, LineSolution mustEmpty) {
+        this.lineSize = lineSize;
+        this.mustFill = mustFill;
+        this.mustEmpty = mustEmpty;
+        lengths = clue.getGroupLengths();
+        starts = new int[lengths.length];
+        maxStarts = new int[lengths.length];
+        int end = lineSize;
+        for (int j = lengths.length - 1; j >= 0; j--) {
+            maxStarts[j] = end - lengths[j];
+            end = maxStarts[j] - 1;
+        }
+        if (lengths.length == 0) {
+            // a row with no numbers has exactly one solution, all slashed
+            hasNext = firstFilledFrom(0, lineSize) < 0;
+        }
+        else hasNext = advance(0, 0);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return hasNext;
+    }
+
+    @Override
+    public LineSolution next() throws NoSuchElementException {
+        if (!hasNext) {
+            throw new NoSuchElementException("There are no more solutions for this row or column!");
+        }
+        LineSolution solution = new LineSolution(lineSize);
+        for (int j = 0; j < lengths.length; j++) {
+            solution.setFilled(starts[j], starts[j] + lengths[j]);
+        }
+        // move on to the next placement now, so hasNext is known
+        int last = lengths.length - 1;
+        hasNext = last >= 0 && advance(last, starts[last] + 1);
+        return solution;
+    }
+
+    /**
+     * Finds the next full placement, starting by moving Clue number j to the first valid index from from onwards and
+     * backing up to earlier numbers whenever a number has nowhere left to go.
+     * @param j the index of the Clue number to move
+     * @param from the first starting index to try for number j
+     * @return true if a full placement was found, false if there are none left
+     */
+    private boolean advance(int j, int from) {
+        while (j >= 0) {
+            int start = nextValidStart(j, from);
+            if (start < 0) {
+                // number j has nowhere left to go, so move the number before it over by one
+                j--;
+                if (j >= 0) {
+                    from = starts[j] + 1;
+                }
+                continue;
+            }
+            starts[j] = start;
+            if (j == lengths.length - 1) {
+                // the Tiles after the last number must be able to be slashed
+                if (firstFilledFrom(start + lengths[j], lineSize) < 0) {
+                    return true;
+                }
+                from = start + 1;
+            }
+            else {
+                from = start + lengths[j] + 1;
+                j++;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds the first index from from onwards where Clue number j can start, given the known Tiles and the position
+     * of the number before it.
+     * @param j the index of the Clue number
+     * @param from the first starting index to try
+     * @return the starting index, or -1 if number j cannot start anywhere from from onwards
+     */
+    private int nextValidStart(int j, int from) {
+        // the Tiles between the end of the previous number and the start of this one are slashed, so none of them may
+        // be known to be filled
+        int gapStart = j == 0 ? 0 : starts[j - 1] + lengths[j - 1];
+        int filledInGap = firstFilledFrom(gapStart, from);
+        if (filledInGap >= 0) {
+            return -1;
+        }
+        for (int start = from; start <= maxStarts[j]; start++) {
+            int end = start + lengths[j];
+            boolean fits = true;
+            for (int i = start; i < end; i++) {
+                if (mustEmpty.isFilled(i)) {
+                    fits = false;
+                    break;
+                }
+            }
+            // the Tile right after the number is slashed
+            if (fits && (end >= lineSize || !mustFill.isFilled(end))) {
+                return start;
+            }
+            // moving past a filled Tile would leave it in the gap
+            if (mustFill.isFilled(start)) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param from the first index to look at
+     * @param to the index after the last one to look at
+     * @return the first index from from to to which is known to be filled, or -1 if there is none
+     */
+    private int firstFilledFrom(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (mustFill.isFilled(i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,236 @@
+package nonograms;
+
+import java.util.Arrays;
+
+/**
+ * The ProbingAlgorithm class is a variation on the BacktrackingAlgorithm which probes the Board before every branch.
+ * Once propagation stalls, each unknown Tile is tentatively filled and then slashed, and the guess propagated. If one
+ * of the guesses leaves some row or column without a solution, the Tile must be the other state, which is marked and
+ * propagated in turn; if both do, the branch has no solution. Probing repeats until a whole pass marks nothing more,
+ * and only then does the search branch. Most puzzles propagation alone cannot finish are solved by probing with few
+ * branches or none at all.
+ *
+ * A probe which ends without a contradiction is remembered along with the rows and columns its propagation looked at.
+ * Propagation only depends on the lines it looks at, so until one of those lines changes, the probe would end the
+ * same way again and is skipped. This keeps later passes, and probing deeper in the search, from repeating the probes
+ * nothing has affected.
+ *
+ * @author Ben Stone
+ */
+public class ProbingAlgorithm extends BacktrackingAlgorithm {
+    private Board board;
+    // whether a probe is being made, so the Tiles it marks and unmarks do not count as changes to their lines
+    private boolean probing;
+    // counts every change to a line outside of a probe
+    private long clock;
+    // the clock when each line last changed, rows first and then columns
+    private long[] lineStamps;
+    // the clock when each probe last ended without a contradiction, or 0 if it never has, for Tile * 2 when filled and
+    // Tile * 2 + 1 when slashed
+    private long[] probeStamps;
+    // the lines each probe looked at when it last ended without a contradiction, as a bit set of wordsPerProbe words
+    private long[] footprints;
+    private int wordsPerProbe;
+    // the dirty lines of a probe's propagation
+    private boolean[] rowDirty;
+    private boolean[] colDirty;
+
+    /**
+     * Creates a ProbingAlgorithm which solves the given Board without reporting its progress.
+     * @param board a Board Object
+     */
+    public ProbingAlgorithm(Board board) {
+        this(board, null);
+    }
+
+    /**
+     * Creates a ProbingAlgorithm which solves the given Board, telling the listener whenever the Board changes.
+     * @param board a Board Object
+     * @param listener a SolveListener, or null to not report progress
+     */
+    public ProbingAlgorithm(Board board, SolveListener listener) {
+        super(board, listener);
+        this.board = board;
+    }
+
+    /**
+     * Forgets every probe made by an earlier solve before searching.
+     * @param grid the known state of each Tile, where an empty Tile is not yet known, edited in place
+     * @param context the SolveContext of the solve, told about every node of the search
+     * @return grid once every Tile is known, or null if there is no solution or the search was stopped
+     */
+    @Override
+    protected Tile.State[][] search(Tile.State[][] grid, SolveContext context) {
+        int lines = board.height() + board.width();
+        probing = false;
+        // a stamp of 0 means a probe has never been remembered
+        clock = 1;
+        lineStamps = new long[lines];
+        probeStamps = new long[2 * board.width() * board.height()];
+        wordsPerProbe = (lines + 63) / 64;
+        footprints = new long[probeStamps.length * wordsPerProbe];
+        rowDirty = new boolean[board.height()];
+        colDirty = new boolean[board.width()];
+        return super.search(grid, context);
+    }
+
+    /**
+     * Probes every unknown Tile both ways, marking the other state of any Tile a probe contradicts, until a whole pass
+     * marks nothing. Each probe counts as a node and a candidate, and each contradicted probe as a pruned candidate.
+     * @param grid the known state of each Tile, which propagation has made consistent, edited in place
+     * @param context the SolveContext of the solve
+     * @return false if some Tile can be neither filled nor slashed, true otherwise or if the search was stopped
+     */
+    @Override
+    protected boolean deduce(Tile.State[][] grid, SolveContext context) {
+        int width = board.width();
+        boolean marked = true;
+        while (marked) {
+            marked = false;
+            for (int tile = 0; tile < probeStamps.length / 2; tile++) {
+                int r = tile / width;
+                int c = tile % width;
+                for (int i = 0; i < 2 && grid[r][c] == Tile.State.EMPTY; i++) {
+                    int probe = 2 * tile + i;
+                    if (isRemembered(probe)) {
+                        continue;
+                    }
+                    // leave the search to notice it has been stopped
+                    if (!context.tick()) {
+                        return true;
+                    }
+                    context.addCandidatesGenerated(1);
+                    Tile.State state = i == 0 ? Tile.State.FILLED : Tile.State.SLASHED;
+                    if (probe(grid, r, c, state, probe, context)) {
+                        continue;
+                    }
+                    context.addCandidatesPruned(1);
+                    marked = true;
+                    Arrays.fill(rowDirty, false);
+                    Arrays.fill(colDirty, false);
+                    set(grid, r, c, i == 0 ? Tile.State.SLASHED : Tile.State.FILLED);
+                    rowDirty[r] = true;
+                    colDirty[c] = true;
+                    if (!propagate(grid, rowDirty, colDirty, context)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Marks a Tile as the given state and propagates it, then undoes everything the probe marked. If the probe ends
+     * without a contradiction, it is remembered along with the lines its propagation looked at, which are the Tile's
+     * own row and column and the row and column of every Tile it marked.
+     * @param grid the known state of each Tile, left as it was
+     * @param r an int index of a row
+     * @param c an int index of a column
+     * @param state the state to probe the Tile as
+     * @param probe the index of the probe
+     * @param context the SolveContext of the solve
+     * @return false if the probe left some row or column without any possible solution, true otherwise
+     */
+    private boolean probe(Tile.State[][] grid, int r, int c, Tile.State state, int probe, SolveContext context) {
+        int width = board.width();
+        int mark = trailSize();
+        probing = true;
+        Arrays.fill(rowDirty, false);
+        Arrays.fill(colDirty, false);
+        set(grid, r, c, state);
+        rowDirty[r] = true;
+        colDirty[c] = true;
+        boolean consistent = propagate(grid, rowDirty, colDirty, context);
+        if (consistent) {
+            int footprint = probe * wordsPerProbe;
+            Arrays.fill(footprints, footprint, footprint + wordsPerProbe, 0L);
+            for (int i = mark; i < trailSize(); i++) {
+                int tile = trailTile(i);
+                addLine(footprint, tile / width);
+                addLine(footprint, board.height() + tile % width);
+            }
+            probeStamps[probe] = clock;
+        }
+        undo(grid, mark);
+        probing = false;
+        return consistent;
+    }
+
+    /**
+     * @param probe the index of a probe
+     * @return true if the probe last ended without a contradiction and none of the lines it looked at have changed
+     * since, false otherwise
+     */
+    private boolean isRemembered(int probe) {
+        long stamp = probeStamps[probe];
+        if (stamp == 0) {
+            return false;
+        }
+        int footprint = probe * wordsPerProbe;
+        for (int w = 0; w < wordsPerProbe; w++) {
+            long word = footprints[footprint + w];
+            while (word != 0) {
+                int line = 64 * w + Long.numberOfTrailingZeros(word);
+                if (lineStamps[line] > stamp) {
+                    return false;
+                }
+                word &= word - 1;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds a line to a probe's footprint.
+     * @param footprint the index of the probe's first word in footprints
+     * @param line a row index, or the height plus a column index
+     */
+    private void addLine(int footprint, int line) {
+        footprints[footprint + line / 64] |= 1L << (line % 64);
+    }
+
+    /**
+     * Makes an unknown Tile known, pushing it onto the trail, and notes the change to its row and column unless it is
+     * part of a probe.
+     * @param grid the known state of each Tile, edited in place
+     * @param r an int index of a row
+     * @param c an int index of a column
+     * @param state the state the Tile is now known to be
+     */
+    @Override
+    protected void set(Tile.State[][] grid, int r, int c, Tile.State state) {
+        super.set(grid, r, c, state);
+        if (!probing) {
+            changed(r, c);
+        }
+    }
+
+    /**
+     * Empties every Tile pushed onto the trail since it was the given size, noting the change to their rows and
+     * columns unless they were part of a probe.
+     * @param grid the known state of each Tile, edited in place
+     * @param mark the size of the trail to go back to
+     */
+    @Override
+    protected void undo(Tile.State[][] grid, int mark) {
+        if (!probing) {
+            for (int i = mark; i < trailSize(); i++) {
+                int tile = trailTile(i);
+                changed(tile / board.width(), tile % board.width());
+            }
+        }
+        super.undo(grid, mark);
+    }
+
+    /**
+     * Notes that a Tile has changed, so every probe which looked at its row or column is made again.
+     * @param r an int index of a row
+     * @param c an int index of a column
+     */
+    private void changed(int r, int c) {
+        clock++;
+        lineStamps[r] = clock;
+        lineStamps[board.height() + c] = clock;
+    }
+}
@@ -0,0 +1,260 @@
+package nonograms;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A PuzzleGenerator makes random Puzzles of a given size for stress tests and benchmarks. Each Puzzle comes from a
+ * random picture in which every Tile is filled with the given chance, and its Clues are the groups of filled Tiles in
+ * each row and column of the picture. The pictures are drawn from a seeded Random, so the same seed always gives the
+ * same Puzzles in the same order.
+ *
+ * A PuzzleGenerator can be told to keep only the Puzzles whose solution is unique, which it checks by counting their
+ * solutions with a ProbingAlgorithm. Each check is bounded by a node budget rather than a timeout, so which Puzzles are
+ * kept does not depend on how fast the machine is; a Puzzle whose check runs out of budget is thrown away. Sparse
+ * pictures rarely have unique solutions, so a density of around 0.6 or more is best for unique Puzzles.
+ *
+ * Usage: PuzzleGenerator [--size n | --width n --height n] [--density chance] [--seed seed] [--count n] [--unique]
+ * [--node-budget nodes] file
+ *
+ * The Puzzles are streamed to the file as they are made, in the format given by its extension. A .nonb corpus file
+ * also holds the picture of each Puzzle as its solution.
+ *
+ * @author Ben Stone
+ */
+public class PuzzleGenerator {
+    // the node budget of each uniqueness check unless another is given
+    static final long DEFAULT_NODE_BUDGET = 100000;
+    // the number of pictures in a row which may be thrown away before next gives up
+    static final int MAX_ATTEMPTS = 1000;
+
+    private int width;
+    private int height;
+    // the chance of each Tile of a picture being filled
+    private double density;
+    private long seed;
+    private Random random;
+    // whether Puzzles without a unique solution are thrown away
+    private boolean uniqueOnly;
+    // the SolveLimits of each uniqueness check
+    private SolveLimits limits;
+    // the number of Puzzles made so far
+    private int generated;
+    // the picture of the last Puzzle made
+    private BitGrid solution;
+
+    /**
+     * Creates a PuzzleGenerator which makes Puzzles of the given size, whatever their solutions.
+     * @param width the number of columns of each Puzzle
+     * @param height the number of rows of each Puzzle
+     * @param density the chance of each Tile of a picture being filled, from 0 to 1
+     * @param seed the seed of the random pictures
+     * @throws IllegalArgumentException if the size is not positive or the density is not a chance
+     */
+    public PuzzleGenerator(int width, int height, double density, long seed) throws IllegalArgumentException {
+        if (width < 1 || height < 1) {
+            throw new IllegalArgumentException(width + "x" + height + " is not a valid Board size!");
+        }
+        if (!(density >= 0 && density <= 1)) {
+            throw new IllegalArgumentException(density + " is not a valid density!");
+        }
+        this.width = width;
+        this.height = height;
+        this.density = density;
+        this.seed = seed;
+        random = new Random(seed);
+        limits = new SolveLimits(0, TimeUnit.MILLISECONDS, DEFAULT_NODE_BUDGET);
+    }
+
+    /**
+     * Sets whether Puzzles without a unique solution are thrown away, and the node budget of the check.
+     * @param uniqueOnly true to keep only Puzzles with a unique solution
+     * @param nodeBudget the most nodes each uniqueness check may visit, or 0 for no limit
+     * @throws IllegalArgumentException if nodeBudget is negative
+     */
+    public void setUniqueOnly(boolean uniqueOnly, long nodeBudget) throws IllegalArgumentException {
+        this.uniqueOnly = uniqueOnly;
+        limits = new SolveLimits(0, TimeUnit.MILLISECONDS, nodeBudget);
+    }
+
+    /**
+     * Makes the next Puzzle, titled after the seed and its place in the sequence.
+     * @return a new Puzzle with an unsolved Board, or null if only unique Puzzles are kept and MAX_ATTEMPTS pictures
+     * in a row did not have a unique solution
+     */
+    public Puzzle next() {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            BitGrid picture = nextPicture();
+            Board board = boardFor(picture);
+            if (uniqueOnly && !new ProbingAlgorithm(board).countSolutions(2, limits).isUnique()) {
+                continue;
+            }
+            solution = picture;
+            return new Puzzle("Random " + width + "x" + height + " " + seed + "-" + generated++, board);
+        }
+        return null;
+    }
+
+    /**
+     * @return the picture of the last Puzzle made, which is a solution of it and the only one if only unique Puzzles
+     * are kept, or null if no Puzzle has been made
+     */
+    public BitGrid getSolution() {
+        return solution;
+    }
+
+    /**
+     * Draws the next random picture.
+     * @return a BitGrid with each Tile filled with the chance of the density and slashed otherwise
+     */
+    BitGrid nextPicture() {
+        BitGrid picture = new BitGrid(width, height);
+        for (int r = 0; r < height; r++) {
+            for (int c = 0; c < width; c++) {
+                if (random.nextDouble() < density) {
+                    picture.fill(r, c);
+                }
+                else picture.slash(r, c);
+            }
+        }
+        return picture;
+    }
+
+    /**
+     * Builds the Board whose Clues describe the given picture.
+     * @param picture a BitGrid whose filled Tiles make up the picture
+     * @return a new unsolved Board
+     */
+    static Board boardFor(BitGrid picture) {
+        Clue[] rowClues = new Clue[picture.height()];
+        boolean[] line = new boolean[picture.width()];
+        for (int r = 0; r < rowClues.length; r++) {
+            for (int c = 0; c < line.length; c++) {
+                line[c] = picture.isFilled(r, c);
+            }
+            rowClues[r] = clueFor(line);
+        }
+        Clue[] colClues = new Clue[picture.width()];
+        line = new boolean[picture.height()];
+        for (int c = 0; c < colClues.length; c++) {
+            for (int r = 0; r < line.length; r++) {
+                line[r] = picture.isFilled(r, c);
+            }
+            colClues[c] = clueFor(line);
+        }
+        return new Board(picture.width(), picture.height(), rowClues, colClues);
+    }
+
+    /**
+     * @param line the filled Tiles of a row or column
+     * @return the Clue describing the groups of filled Tiles in line
+     */
+    static Clue clueFor(boolean[] line) {
+        int[] groups = new int[line.length / 2 + 1];
+        int count = 0;
+        int run = 0;
+        for (int i = 0; i <= line.length; i++) {
+            if (i < line.length && line[i]) {
+                run++;
+            }
+            else if (run > 0) {
+                groups[count++] = run;
+                run = 0;
+            }
+        }
+        // a line with nothing filled has the Clue of a lone zero
+        if (count == 0) {
+            return new Clue(new int[] {0});
+        }
+        int[] numbers = new int[count];
+        System.arraycopy(groups, 0, numbers, 0, count);
+        return new Clue(numbers);
+    }
+
+    public static void main(String[] args) {
+        int width = 50;
+        int height = 50;
+        double density = 0.7;
+        long seed = 42;
+        int count = 1;
+        boolean uniqueOnly = false;
+        long nodeBudget = DEFAULT_NODE_BUDGET;
+        Path output = null;
+        PuzzleGenerator generator;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--size":
+                        width = Integer.parseInt(args[++i]);
+                        height = width;
+                        break;
+                    case "--width":
+                        width = Integer.parseInt(args[++i]);
+                        break;
+                    case "--height":
+                        height = Integer.parseInt(args[++i]);
+                        break;
+                    case "--density":
+                        density = Double.parseDouble(args[++i]);
+                        break;
+                    case "--seed":
+                        seed = Long.parseLong(args[++i]);
+                        break;
+                    case "--count":
+                        count = Integer.parseInt(args[++i]);
+                        break;
+                    case "--unique":
+                        uniqueOnly = true;
+                        break;
+                    case "--node-budget":
+                        nodeBudget = Long.parseLong(args[++i]);
+                        break;
+                    default:
+                        if (output != null) {
+                            throw new IllegalArgumentException("Only one output file may be given!");
+                        }
+                        output = Paths.get(args[i]);
+                        break;
+                }
+            }
+            if (output == null) {
+                throw new IllegalArgumentException("No output file was given!");
+            }
+            generator = new PuzzleGenerator(width, height, density, seed);
+            generator.setUniqueOnly(uniqueOnly, nodeBudget);
+        }
+        catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            System.err.println(e.getMessage() == null ? "Missing the value of an option!" : e.getMessage());
+            System.err.println("Usage: PuzzleGenerator [--size n | --width n --height n] [--density chance]" +
+                    " [--seed seed] [--count n] [--unique] [--node-budget nodes] file");
+            System.exit(2);
+            return;
+        }
+        boolean binary = output.getFileName().toString().endsWith(BatchSolver.CORPUS_EXTENSION);
+        int made = 0;
+        try (Closeable writer = binary ? new BinaryPuzzleWriter(output) : PuzzleWriter.create(output)) {
+            Puzzle puzzle;
+            while (made < count && (puzzle = generator.next()) != null) {
+                if (binary) {
+                    ((BinaryPuzzleWriter) writer).write(puzzle, generator.getSolution());
+                }
+                else ((PuzzleWriter) writer).write(puzzle);
+                made++;
+            }
+        }
+        catch (IOException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+        // the Puzzles made are still written, but there are fewer of them than were asked for
+        if (made < count) {
+            System.err.println("Gave up after " + MAX_ATTEMPTS + " pictures in a row without a unique solution," +
+                    " having made " + made + " Puzzles!");
+            System.exit(1);
+        }
+    }
+}
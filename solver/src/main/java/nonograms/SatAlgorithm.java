@@ -0,0 +1,215 @@
+package nonograms;
+
+import java.util.Arrays;
+
+/**
+ * The SatAlgorithm class solves a Board by encoding it as a formula in conjunctive normal form and handing it to a
+ * SatSolver. Clause learning lets the SatSolver avoid the exponential searches some pathological Boards force on the
+ * other algorithms, so it is the one to reach for when they get stuck, though it is slower on ordinary Boards.
+ *
+ * Each Tile is a variable which is true when the Tile is filled. The Clue of each row and column is encoded as the
+ * automaton which reads the line a Tile at a time and accepts it only if it matches the Clue. Its states are the places
+ * in the pattern of the Clue, which is a slashed Tile, then each group as that many filled Tiles followed by a slashed
+ * Tile, where a slashed Tile may repeat and a filled Tile may not. For every Tile of the line there is a variable for
+ * each state the automaton could be in after reading it, and clauses tie each of those to the state of the Tile and to
+ * the states before and after it. States which cannot reach an accepting state in the Tiles left, or be reached in the
+ * Tiles read, are left out altogether.
+ *
+ * Propagation runs first, and the Tiles it finds are given to the SatSolver as known.
+ *
+ * @author Ben Stone
+ */
+public class SatAlgorithm extends ConstraintPropagationAlgorithm {
+    private Board board;
+
+    /**
+     * Creates a SatAlgorithm which solves the given Board without reporting its progress.
+     * @param board a Board Object
+     */
+    public SatAlgorithm(Board board) {
+        this(board, null);
+    }
+
+    /**
+     * Creates a SatAlgorithm which solves the given Board, telling the listener whenever the Board changes.
+     * @param board a Board Object
+     * @param listener a SolveListener, or null to not report progress
+     */
+    public SatAlgorithm(Board board, SolveListener listener) {
+        super(board, listener);
+        this.board = board;
+    }
+
+    /**
+     * Encodes the Board and the known Tiles as a formula and solves it. Each decision of the SatSolver counts as a
+     * node and a candidate, and each conflict as a pruned candidate.
+     * @param grid the known state of each Tile, where an empty Tile is not yet known, edited in place
+     * @param context the SolveContext of the solve, told about every node of the search
+     * @return grid once every Tile is known, or null if there is no solution or the search was stopped
+     */
+    @Override
+    protected Tile.State[][] search(Tile.State[][] grid, SolveContext context) {
+        SatSolver solver = new SatSolver();
+        int[][] tiles = new int[board.height()][board.width()];
+        for (int r = 0; r < tiles.length; r++) {
+            for (int c = 0; c < tiles[r].length; c++) {
+                tiles[r][c] = solver.newVariable();
+                if (grid[r][c] == Tile.State.FILLED) {
+                    solver.addClause(tiles[r][c]);
+                }
+                else if (grid[r][c] == Tile.State.SLASHED) {
+                    solver.addClause(-tiles[r][c]);
+                }
+            }
+        }
+        Clue[] rowClues = board.getRowClues();
+        for (int r = 0; r < tiles.length; r++) {
+            encodeLine(solver, rowClues[r], tiles[r]);
+        }
+        Clue[] colClues = board.getColClues();
+        int[] column = new int[tiles.length];
+        for (int c = 0; c < colClues.length; c++) {
+            for (int r = 0; r < tiles.length; r++) {
+                column[r] = tiles[r][c];
+            }
+            encodeLine(solver, colClues[c], column);
+        }
+        boolean solved = solver.solve(context);
+        context.addCandidatesGenerated(solver.getDecisions());
+        context.addCandidatesPruned(solver.getConflicts());
+        if (!solved) {
+            return null;
+        }
+        for (int r = 0; r < tiles.length; r++) {
+            for (int c = 0; c < tiles[r].length; c++) {
+                grid[r][c] = solver.value(tiles[r][c]) ? Tile.State.FILLED : Tile.State.SLASHED;
+            }
+        }
+        return grid;
+    }
+
+    /**
+     * Adds the clauses which hold only when a line agrees with its Clue.
+     * @param solver the SatSolver to add the clauses to
+     * @param clue the Clue of the line
+     * @param line the variable of each Tile of the line, in order
+     */
+    static void encodeLine(SatSolver solver, Clue clue, int[] line) {
+        int[] groups = clue.getGroupLengths();
+        // whether each state of the automaton is reached by reading a filled Tile, starting with the slashed Tiles
+        // before the first group and ending with those after the last
+        int states = groups.length + 1;
+        for (int length : groups) {
+            states += length;
+        }
+        boolean[] filled = new boolean[states];
+        int state = 1;
+        for (int length : groups) {
+            for (int i = 0; i < length; i++) {
+                filled[state++] = true;
+            }
+            state++;
+        }
+        int n = line.length;
+        // which states the automaton can be in after reading each number of Tiles, going forwards from the start and
+        // backwards from the accepting states
+        boolean[][] valid = new boolean[n + 1][states];
+        valid[0][0] = true;
+        for (int i = 1; i <= n; i++) {
+            for (int j = 0; j < states; j++) {
+                valid[i][j] = valid[i - 1][j] && !filled[j] || j > 0 && valid[i - 1][j - 1];
+            }
+        }
+        // after the last Tile the automaton must have read the last group, and perhaps slashed Tiles after it
+        boolean[] reachable = new boolean[states];
+        reachable[states - 1] = true;
+        if (states > 1) {
+            reachable[states - 2] = true;
+        }
+        for (int i = n; i >= 0; i--) {
+            boolean[] before = new boolean[states];
+            for (int j = 0; j < states; j++) {
+                valid[i][j] &= reachable[j];
+                before[j] = !filled[j] && reachable[j] || j + 1 < states && reachable[j + 1];
+            }
+            reachable = before;
+        }
+        // the variable of each valid state after each number of Tiles, where the start needs none as it is certain
+        int[][] variables = new int[n + 1][states];
+        for (int i = 1; i <= n; i++) {
+            for (int j = 0; j < states; j++) {
+                if (valid[i][j]) {
+                    variables[i][j] = solver.newVariable();
+                }
+            }
+        }
+        int[] next = new int[2];
+        for (int i = 1; i <= n; i++) {
+            int tile = line[i - 1];
+            int[] filledStates = new int[states + 1];
+            int[] slashedStates = new int[states + 1];
+            int filledCount = 0;
+            int slashedCount = 0;
+            for (int j = 0; j < states; j++) {
+                if (!valid[i][j]) {
+                    continue;
+                }
+                int variable = variables[i][j];
+                // being in a state means the Tile just read matches it
+                solver.addClause(-variable, filled[j] ? tile : -tile);
+                if (filled[j]) {
+                    filledStates[filledCount++] = variable;
+                }
+                else slashedStates[slashedCount++] = variable;
+                // and the automaton got there from a valid state before it
+                boolean fromStart = i == 1 && (j == 0 || j == 1);
+                if (!fromStart) {
+                    int count = 0;
+                    if (!filled[j] && valid[i - 1][j]) {
+                        next[count++] = variables[i - 1][j];
+                    }
+                    if (j > 0 && valid[i - 1][j - 1]) {
+                        next[count++] = variables[i - 1][j - 1];
+                    }
+                    addImplication(solver, variable, next, count);
+                }
+            }
+            // every Tile read leads to one of the valid states after it
+            for (int j = 0; j < states; j++) {
+                if (!valid[i - 1][j]) {
+                    continue;
+                }
+                int count = 0;
+                if (!filled[j] && valid[i][j]) {
+                    next[count++] = variables[i][j];
+                }
+                if (j + 1 < states && valid[i][j + 1]) {
+                    next[count++] = variables[i][j + 1];
+                }
+                addImplication(solver, i == 1 ? 0 : variables[i - 1][j], next, count);
+            }
+            // a filled Tile puts the automaton in a filled state, and a slashed one in a slashed state, which is
+            // implied by the clauses above but lets the SatSolver see it sooner
+            filledStates[filledCount++] = -tile;
+            solver.addClause(Arrays.copyOf(filledStates, filledCount));
+            slashedStates[slashedCount++] = tile;
+            solver.addClause(Arrays.copyOf(slashedStates, slashedCount));
+        }
+    }
+
+    /**
+     * Adds the clause that a variable implies at least one of a number of others.
+     * @param solver the SatSolver to add the clause to
+     * @param variable the implying variable, or 0 if it is certain
+     * @param implied the implied variables
+     * @param count the number of implied variables
+     */
+    private static void addImplication(SatSolver solver, int variable, int[] implied, int count) {
+        int[] clause = new int[count + (variable == 0 ? 0 : 1)];
+        System.arraycopy(implied, 0, clause, 0, count);
+        if (variable != 0) {
+            clause[count] = -variable;
+        }
+        solver.addClause(clause);
+    }
+}
@@ -0,0 +1,692 @@
+package nonograms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A SatSolver decides whether a formula in conjunctive normal form can be satisfied, and finds an assignment which
+ * satisfies it if so. It is a conflict driven clause learning solver written in plain Java:
+ * <ul>
+ *     <li>Unit propagation watches two literals of each clause, so only the clauses watching a literal which has just
+ *     been made false are looked at.</li>
+ *     <li>Every conflict is analysed back to its first unique implication point, and the clause learnt from it is
+ *     added to the formula before the search jumps back to the level where that clause becomes unit.</li>
+ *     <li>Variables are picked by their activity, which is bumped for every variable taking part in a conflict and
+ *     decays over time, and are tried in the state they last had.</li>
+ *     <li>The search restarts on the Luby sequence, keeping what it has learnt, and half of the least active learnt
+ *     clauses are thrown away whenever there are too many of them.</li>
+ * </ul>
+ *
+ * Variables are numbered from 1, and a literal is a variable for it being true, or its negation for it being false,
+ * the same as the DIMACS format. Clauses may be added between solves, and whatever was learnt by an earlier solve is
+ * kept, so a SatSolver can be asked for another solution by adding a clause ruling out the last one.
+ *
+ * A SatSolver is not thread safe.
+ *
+ * @author Ben Stone
+ */
+public class SatSolver {
+    // the value of an unassigned variable or literal
+    private static final byte UNDEFINED = 0;
+    private static final byte TRUE = 1;
+    private static final byte FALSE = -1;
+    // the number of conflicts in the first run between restarts, which is scaled by the Luby sequence
+    private static final int RESTART_BASE = 100;
+    private static final double VARIABLE_DECAY = 0.95;
+    private static final double CLAUSE_DECAY = 0.999;
+
+    // internally variables are numbered from 0, and a literal is twice its variable, plus one if it is negated
+    private int variables;
+    // false once the formula is known to have no solution
+    private boolean ok;
+    private List<Clause> clauses;
+    private List<Clause> learnts;
+    // the clauses watching each literal, which are looked at when the literal becomes false
+    private Clause[][] watches;
+    private int[] watchCounts;
+
+    // the value of each variable
+    private byte[] assigns;
+    // the decision level each variable was assigned at
+    private int[] levels;
+    // the clause which made each variable's literal true, or null if it was a decision or is unassigned
+    private Clause[] reasons;
+    // whether each variable was false when it was last assigned, so it is tried that way next time
+    private boolean[] phases;
+    // every literal made true, in order
+    private int[] trail;
+    private int trailSize;
+    // the size of the trail as each decision level was started
+    private int[] trailLimits;
+    private int decisionLevel;
+    // the trail index of the next literal to propagate
+    private int propagateHead;
+
+    private double[] activities;
+    private double variableIncrement;
+    private double clauseIncrement;
+    // the unassigned variables, most active first
+    private VariableHeap order;
+    // the state of each variable in the last solution found
+    private boolean[] model;
+
+    // scratch space for analysing conflicts
+    private boolean[] seen;
+    private int[] learnt;
+
+    private long decisions;
+    private long conflicts;
+    private long propagations;
+
+    /**
+     * Creates a SatSolver for an empty formula, with no variables.
+     */
+    public SatSolver() {
+        ok = true;
+        clauses = new ArrayList<>();
+        learnts = new ArrayList<>();
+        watches = new Clause[0][];
+        watchCounts = new int[0];
+        assigns = new byte[0];
+        levels = new int[0];
+        reasons = new Clause[0];
+        phases = new boolean[0];
+        trail = new int[0];
+        trailLimits = new int[0];
+        activities = new double[0];
+        variableIncrement = 1;
+        clauseIncrement = 1;
+        order = new VariableHeap();
+        seen = new boolean[0];
+        learnt = new int[0];
+    }
+
+    /**
+     * Adds a new variable to the formula.
+     * @return the number of the variable, starting from 1
+     */
+    public int newVariable() {
+        int variable = variables++;
+        if (variable == assigns.length) {
+            int capacity = Math.max(16, 2 * variable);
+            watches = Arrays.copyOf(watches, 2 * capacity);
+            watchCounts = Arrays.copyOf(watchCounts, 2 * capacity);
+            assigns = Arrays.copyOf(assigns, capacity);
+            levels = Arrays.copyOf(levels, capacity);
+            reasons = Arrays.copyOf(reasons, capacity);
+            phases = Arrays.copyOf(phases, capacity);
+            trail = Arrays.copyOf(trail, capacity);
+            trailLimits = Arrays.copyOf(trailLimits, capacity + 1);
+            activities = Arrays.copyOf(activities, capacity);
+            seen = Arrays.copyOf(seen, capacity);
+            learnt = Arrays.copyOf(learnt, capacity);
+        }
+        watches[2 * variable] = new Clause[4];
+        watches[2 * variable + 1] = new Clause[4];
+        // nothing is known about the variable, so slashed is as good a first guess as any
+        phases[variable] = true;
+        order.insert(variable);
+        return variable + 1;
+    }
+
+    /**
+     * @return the number of variables in the formula
+     */
+    public int variables() {
+        return variables;
+    }
+
+    /**
+     * Adds a clause to the formula, which is satisfied when any one of its literals is true.
+     * @param literals the literals of the clause, each a variable number or its negation
+     * @return false if the formula is now known to have no solution, true otherwise
+     * @throws IllegalArgumentException if a literal is 0 or names a variable which does not exist
+     */
+    public boolean addClause(int... literals) throws IllegalArgumentException {
+        cancelUntil(0);
+        if (!ok) {
+            return false;
+        }
+        int[] lits = new int[literals.length];
+        int size = 0;
+        for (int literal : literals) {
+            if (literal == 0 || Math.abs(literal) > variables) {
+                throw new IllegalArgumentException(literal + " is not a literal of any variable!");
+            }
+            int lit = literal > 0 ? 2 * (literal - 1) : 2 * (-literal - 1) + 1;
+            byte value = litValue(lit);
+            // a literal already true satisfies the clause for good, and one already false can never help it
+            if (value == TRUE) {
+                return true;
+            }
+            else if (value == FALSE) {
+                continue;
+            }
+            boolean duplicate = false;
+            for (int i = 0; i < size; i++) {
+                if (lits[i] == (lit ^ 1)) {
+                    return true;
+                }
+                duplicate |= lits[i] == lit;
+            }
+            if (!duplicate) {
+                lits[size++] = lit;
+            }
+        }
+        if (size == 0) {
+            ok = false;
+        }
+        else if (size == 1) {
+            enqueue(lits[0], null);
+            ok = propagate() == null;
+        }
+        else {
+            Clause clause = new Clause(Arrays.copyOf(lits, size), false);
+            clauses.add(clause);
+            attach(clause);
+        }
+        return ok;
+    }
+
+    /**
+     * Searches for an assignment satisfying every clause, stopping early if the search goes past the given limits or
+     * the calling thread is interrupted.
+     * @param limits the SolveLimits of the search
+     * @return SOLVED if an assignment was found, UNSOLVABLE if there is none, or the reason the search was stopped
+     */
+    public SolveStatus solve(SolveLimits limits) {
+        SolveContext context = new SolveContext(limits);
+        return solve(context) ? SolveStatus.SOLVED : context.statusOr(SolveStatus.UNSOLVABLE);
+    }
+
+    /**
+     * Searches for an assignment satisfying every clause. Each decision counts as a node of the context.
+     * @param context the SolveContext of the solve
+     * @return true if an assignment was found, which value then gives, or false if there is none or the search was
+     * stopped
+     */
+    boolean solve(SolveContext context) {
+        if (!ok || propagate() != null) {
+            ok = false;
+            return false;
+        }
+        int restarts = 0;
+        long restartAt = conflicts + RESTART_BASE * luby(restarts);
+        double maxLearnts = Math.max(clauses.size() / 3.0, 1000);
+        while (true) {
+            Clause conflict = propagate();
+            if (conflict != null) {
+                conflicts++;
+                if (decisionLevel == 0) {
+                    ok = false;
+                    return false;
+                }
+                int size = analyze(conflict);
+                if (size == 1) {
+                    cancelUntil(0);
+                    enqueue(learnt[0], null);
+                }
+                else {
+                    cancelUntil(levels[learnt[1] >> 1]);
+                    Clause clause = new Clause(Arrays.copyOf(learnt, size), true);
+                    learnts.add(clause);
+                    attach(clause);
+                    bumpClause(clause);
+                    enqueue(learnt[0], clause);
+                }
+                variableIncrement /= VARIABLE_DECAY;
+                clauseIncrement /= CLAUSE_DECAY;
+                continue;
+            }
+            if (conflicts >= restartAt) {
+                cancelUntil(0);
+                restarts++;
+                restartAt = conflicts + RESTART_BASE * luby(restarts);
+            }
+            if (learnts.size() - trailSize >= maxLearnts) {
+                reduceLearnts();
+                maxLearnts *= 1.1;
+            }
+            int variable = pickBranchVariable();
+            // every variable is assigned without a conflict, so every clause is satisfied
+            if (variable < 0) {
+                model = new boolean[variables];
+                for (int v = 0; v < variables; v++) {
+                    model[v] = assigns[v] == TRUE;
+                }
+                cancelUntil(0);
+                return true;
+            }
+            if (!context.tick()) {
+                // the variable was taken off the heap but never assigned, so cancelUntil would not put it back
+                order.insert(variable);
+                cancelUntil(0);
+                return false;
+            }
+            decisions++;
+            trailLimits[decisionLevel++] = trailSize;
+            enqueue(2 * variable + (phases[variable] ? 1 : 0), null);
+        }
+    }
+
+    /**
+     * @param variable the number of a variable, starting from 1
+     * @return the state of the variable in the last solution found
+     * @throws IllegalStateException if no solution has been found
+     * @throws IndexOutOfBoundsException if the variable does not exist
+     */
+    public boolean value(int variable) throws IllegalStateException, IndexOutOfBoundsException {
+        if (model == null) {
+            throw new IllegalStateException("No solution has been found!");
+        }
+        if (variable < 1 || variable > model.length) {
+            throw new IndexOutOfBoundsException(variable + " is not a variable of the last solution!");
+        }
+        return model[variable - 1];
+    }
+
+    /**
+     * @return the number of decisions made by every solve so far
+     */
+    public long getDecisions() {
+        return decisions;
+    }
+
+    /**
+     * @return the number of conflicts found by every solve so far
+     */
+    public long getConflicts() {
+        return conflicts;
+    }
+
+    /**
+     * @return the number of literals propagated by every solve so far
+     */
+    public long getPropagations() {
+        return propagations;
+    }
+
+    /**
+     * Makes every literal implied by those on the trail true, looking only at the clauses watching a literal which
+     * has been made false.
+     * @return a clause with every literal false, or null if there is none
+     */
+    private Clause propagate() {
+        while (propagateHead < trailSize) {
+            int falseLit = trail[propagateHead++] ^ 1;
+            propagations++;
+            Clause[] watching = watches[falseLit];
+            int count = watchCounts[falseLit];
+            int kept = 0;
+            int i = 0;
+            while (i < count) {
+                Clause clause = watching[i++];
+                if (clause.deleted) {
+                    continue;
+                }
+                int[] lits = clause.lits;
+                // keep the false literal second, so the first is the one the clause may imply
+                if (lits[0] == falseLit) {
+                    lits[0] = lits[1];
+                    lits[1] = falseLit;
+                }
+                if (litValue(lits[0]) == TRUE) {
+                    watching[kept++] = clause;
+                    continue;
+                }
+                boolean moved = false;
+                for (int k = 2; k < lits.length; k++) {
+                    if (litValue(lits[k]) != FALSE) {
+                        lits[1] = lits[k];
+                        lits[k] = falseLit;
+                        watch(lits[1], clause);
+                        moved = true;
+                        break;
+                    }
+                }
+                if (moved) {
+                    continue;
+                }
+                watching[kept++] = clause;
+                if (litValue(lits[0]) == FALSE) {
+                    // keep the clauses not looked at yet
+                    while (i < count) {
+                        watching[kept++] = watching[i++];
+                    }
+                    watchCounts[falseLit] = kept;
+                    propagateHead = trailSize;
+                    return clause;
+                }
+                enqueue(lits[0], clause);
+            }
+            watchCounts[falseLit] = kept;
+        }
+        return null;
+    }
+
+    /**
+     * Works back from a conflict to the first unique implication point of the current decision level, leaving the
+     * clause learnt from it in learnt with the asserting literal first and the literal of the highest other level
+     * second.
+     * @param conflict a clause with every literal false
+     * @return the number of literals in the learnt clause
+     */
+    private int analyze(Clause conflict) {
+        int size = 1;
+        int pending = 0;
+        int lit = -1;
+        int index = trailSize - 1;
+        Clause clause = conflict;
+        do {
+            if (clause.learnt) {
+                bumpClause(clause);
+            }
+            // the first literal of a reason is the one it implied, which is already accounted for
+            for (int j = lit == -1 ? 0 : 1; j < clause.lits.length; j++) {
+                int q = clause.lits[j];
+                int variable = q >> 1;
+                if (!seen[variable] && levels[variable] > 0) {
+                    bumpVariable(variable);
+                    seen[variable] = true;
+                    if (levels[variable] >= decisionLevel) {
+                        pending++;
+                    }
+                    else learnt[size++] = q;
+                }
+            }
+            while (!seen[trail[index] >> 1]) {
+                index--;
+            }
+            lit = trail[index--];
+            clause = reasons[lit >> 1];
+            seen[lit >> 1] = false;
+            pending--;
+        } while (pending > 0);
+        learnt[0] = lit ^ 1;
+        // drop the literals implied by the others, whose reasons add nothing, remembering them all to clear seen
+        int[] found = Arrays.copyOf(learnt, size);
+        int kept = 1;
+        for (int i = 1; i < size; i++) {
+            Clause reason = reasons[learnt[i] >> 1];
+            boolean redundant = reason != null;
+            for (int j = 1; redundant && j < reason.lits.length; j++) {
+                int variable = reason.lits[j] >> 1;
+                redundant = seen[variable] || levels[variable] == 0;
+            }
+            if (!redundant) {
+                learnt[kept++] = learnt[i];
+            }
+        }
+        for (int i = 1; i < size; i++) {
+            seen[found[i] >> 1] = false;
+        }
+        size = kept;
+        // the literal of the highest other level is watched, so the clause is unit once the search jumps back to it
+        int highest = 1;
+        for (int i = 2; i < size; i++) {
+            if (levels[learnt[i] >> 1] > levels[learnt[highest] >> 1]) {
+                highest = i;
+            }
+        }
+        if (size > 1) {
+            int swap = learnt[1];
+            learnt[1] = learnt[highest];
+            learnt[highest] = swap;
+        }
+        return size;
+    }
+
+    /**
+     * Undoes every assignment made above the given decision level, remembering the state each variable had.
+     * @param level the decision level to go back to
+     */
+    private void cancelUntil(int level) {
+        if (decisionLevel <= level) {
+            return;
+        }
+        for (int i = trailSize - 1; i >= trailLimits[level]; i--) {
+            int variable = trail[i] >> 1;
+            phases[variable] = (trail[i] & 1) == 1;
+            assigns[variable] = UNDEFINED;
+            reasons[variable] = null;
+            if (!order.contains(variable)) {
+                order.insert(variable);
+            }
+        }
+        trailSize = trailLimits[level];
+        propagateHead = trailSize;
+        decisionLevel = level;
+    }
+
+    /**
+     * @return the most active unassigned variable, or -1 if every variable is assigned
+     */
+    private int pickBranchVariable() {
+        while (!order.isEmpty()) {
+            int variable = order.removeMax();
+            if (assigns[variable] == UNDEFINED) {
+                return variable;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Throws away the less active half of the learnt clauses, keeping those which are the reason for an assignment
+     * and those of two literals.
+     */
+    private void reduceLearnts() {
+        Collections.sort(learnts, new Comparator<Clause>() {
+            @Override
+            public int compare(Clause a, Clause b) {
+                return Double.compare(a.activity, b.activity);
+            }
+        });
+        List<Clause> kept = new ArrayList<>(learnts.size());
+        int half = learnts.size() / 2;
+        for (int i = 0; i < learnts.size(); i++) {
+            Clause clause = learnts.get(i);
+            boolean locked = reasons[clause.lits[0] >> 1] == clause && litValue(clause.lits[0]) == TRUE;
+            if (i < half && !locked && clause.lits.length > 2) {
+                // the watch lists drop deleted clauses as they come across them
+                clause.deleted = true;
+            }
+            else kept.add(clause);
+        }
+        learnts = kept;
+    }
+
+    /**
+     * @param clause a clause to watch by its first two literals
+     */
+    private void attach(Clause clause) {
+        watch(clause.lits[0], clause);
+        watch(clause.lits[1], clause);
+    }
+
+    /**
+     * @param lit a literal
+     * @param clause a clause to look at when lit becomes false
+     */
+    private void watch(int lit, Clause clause) {
+        if (watchCounts[lit] == watches[lit].length) {
+            watches[lit] = Arrays.copyOf(watches[lit], 2 * watches[lit].length);
+        }
+        watches[lit][watchCounts[lit]++] = clause;
+    }
+
+    /**
+     * Makes a literal true at the current decision level.
+     * @param lit an unassigned literal
+     * @param reason the clause which implied it, or null if it is a decision or was given
+     */
+    private void enqueue(int lit, Clause reason) {
+        int variable = lit >> 1;
+        assigns[variable] = (lit & 1) == 0 ? TRUE : FALSE;
+        levels[variable] = decisionLevel;
+        reasons[variable] = reason;
+        trail[trailSize++] = lit;
+    }
+
+    /**
+     * @param lit a literal
+     * @return TRUE or FALSE if the literal's variable is assigned, UNDEFINED otherwise
+     */
+    private byte litValue(int lit) {
+        byte value = assigns[lit >> 1];
+        return (lit & 1) == 0 ? value : (byte) -value;
+    }
+
+    /**
+     * @param variable a variable which took part in a conflict
+     */
+    private void bumpVariable(int variable) {
+        activities[variable] += variableIncrement;
+        // keep the activities from overflowing, which keeps their order
+        if (activities[variable] > 1e100) {
+            for (int v = 0; v < variables; v++) {
+                activities[v] *= 1e-100;
+            }
+            variableIncrement *= 1e-100;
+        }
+        if (order.contains(variable)) {
+            order.increased(variable);
+        }
+    }
+
+    /**
+     * @param clause a learnt clause which took part in a conflict
+     */
+    private void bumpClause(Clause clause) {
+        clause.activity += clauseIncrement;
+        if (clause.activity > 1e20) {
+            for (Clause c : learnts) {
+                c.activity *= 1e-20;
+            }
+            clauseIncrement *= 1e-20;
+        }
+    }
+
+    /**
+     * @param i an int index into the Luby sequence, from 0
+     * @return the ith number of the Luby sequence 1, 1, 2, 1, 1, 2, 4, 1, ...
+     */
+    private static long luby(int i) {
+        // find the finite subsequence containing i, and its size
+        int size = 1;
+        int sequence = 0;
+        while (size < i + 1) {
+            sequence++;
+            size = 2 * size + 1;
+        }
+        while (size - 1 != i) {
+            size = (size - 1) >> 1;
+            sequence--;
+            i = i % size;
+        }
+        return 1L << sequence;
+    }
+
+    /**
+     * A Clause is a disjunction of literals, the first two of which are watched.
+     */
+    private static class Clause {
+        private int[] lits;
+        private boolean learnt;
+        private double activity;
+        // whether the Clause has been thrown away
+        private boolean deleted;
+
+        Clause(int[] lits, boolean learnt) {
+            this.lits = lits;
+            this.learnt = learnt;
+        }
+    }
+
+    /**
+     * A VariableHeap is a binary heap of variables ordered by their activity, most active first.
+     */
+    private class VariableHeap {
+        private int[] heap = new int[16];
+        private int size;
+        // the index of each variable in the heap, or -1 if it is not in it
+        private int[] indices = new int[0];
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        boolean contains(int variable) {
+            return variable < indices.length && indices[variable] >= 0;
+        }
+
+        void insert(int variable) {
+            if (variable >= indices.length) {
+                int old = indices.length;
+                indices = Arrays.copyOf(indices, Math.max(16, 2 * variable));
+                Arrays.fill(indices, old, indices.length, -1);
+            }
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, 2 * size);
+            }
+            heap[size] = variable;
+            indices[variable] = size;
+            siftUp(size++);
+        }
+
+        /**
+         * @param variable a variable in the heap whose activity has gone up
+         */
+        void increased(int variable) {
+            siftUp(indices[variable]);
+        }
+
+        int removeMax() {
+            int max = heap[0];
+            indices[max] = -1;
+            size--;
+            if (size > 0) {
+                heap[0] = heap[size];
+                indices[heap[0]] = 0;
+                siftDown(0);
+            }
+            return max;
+        }
+
+        private void siftUp(int i) {
+            int variable = heap[i];
+            while (i > 0) {
+                int parent = (i - 1) >> 1;
+                if (activities[heap[parent]] >= activities[variable]) {
+                    break;
+                }
+                heap[i] = heap[parent];
+                indices[heap[i]] = i;
+                i = parent;
+            }
+            heap[i] = variable;
+            indices[variable] = i;
+        }
+
+        private void siftDown(int i) {
+            int variable = heap[i];
+            while (2 * i + 1 < size) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && activities[heap[child + 1]] > activities[heap[child]]) {
+                    child++;
+                }
+                if (activities[heap[child]] <= activities[variable]) {
+                    break;
+                }
+                heap[i] = heap[child];
+                indices[heap[i]] = i;
+                i = child;
+            }
+            heap[i] = variable;
+            indices[variable] = i;
+        }
+    }
+}
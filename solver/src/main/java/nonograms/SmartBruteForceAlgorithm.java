@@ -0,0 +1,215 @@
+package nonograms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * The SmartBruteForceAlgorithm class is a variation on the BruteForceAlgorithm, which increases speed by eliminating
+ * impossible row solutions. It does this by first using a left-right overlap approach to the columns and rows, then
+ * eliminating possible row solutions which do not contain those guaranteed filled Tiles.
+ *
+ * Has slightly more front-end computation, but potential payoff is great in efficiency.
+ *
+ * @author Ben Stone
+ */
+
+public class SmartBruteForceAlgorithm extends BruteForceAlgorithm {
+    private Board board;
+
+    /**
+     * Creates a SmartBruteForceAlgorithm which solves the given Board without reporting its progress.
+     * @param board a Board Object
+     */
+    public SmartBruteForceAlgorithm(Board board) {
+        this(board, null);
+    }
+
+    /**
+     * Creates a SmartBruteForceAlgorithm which solves the given Board, telling the listener whenever the Board
+     * changes.
+     * @param board a Board Object
+     * @param listener a SolveListener, or null to not report progress
+     */
+    public SmartBruteForceAlgorithm(Board board, SolveListener listener) {
+        super(board, listener);
+        this.board = board;
+    }
+
+    /**
+     * Finds the possible solutions of each row, without those which disagree with the overlaps of the rows and columns.
+     * Unless there is a LineCandidateCache, only the solutions which agree with the overlaps are ever built, so the
+     * rest never take up memory.
+     * @param context the SolveContext of the solve, told how many solutions were found and removed
+     * @return a SolutionMatrix Object, or null if the search was stopped before every row's solutions were found
+     */
+    @Override
+    protected SolutionMatrix findRowSolutions(SolveContext context) {
+        // cached solutions are shared with other Boards, so every solution is looked up and then filtered
+        if (getCandidateCache() != null) {
+            return filterRowSolutions(context);
+        }
+        long start = startPhase();
+        LineSolution[] fullOverlaps = findFullOverlappingRows();
+        Clue[] rowClues = board.getRowClues();
+        SolutionMatrix rowSolutions = new SolutionMatrix(board.height());
+        for (int i = 0; i < rowClues.length; i++) {
+            SolutionSet solutions = collectSolutions(new PlacementIterator(rowClues[i], board.width(), fullOverlaps[i],
+                    new LineSolution(board.width())), board.width(), context);
+            if (solutions == null) {
+                endPhase(SolverMetrics.Phase.GENERATION, start);
+                return null;
+            }
+            rowSolutions.add(solutions);
+        }
+        endPhase(SolverMetrics.Phase.GENERATION, start);
+        recordLineCandidates(rowSolutions);
+        // the solutions skipped by the PlacementIterators are counted, as if they had been built and removed
+        long found = countAllSolutions();
+        context.addCandidatesGenerated(found);
+        context.addCandidatesPruned(found - countSolutions(rowSolutions));
+        return rowSolutions;
+    }
+
+    /**
+     * Counts the solutions of every row without building them.
+     * @return the total number of solutions of every row, ignoring the overlaps, which stops growing at
+     * LineSolver.MAX_COUNT
+     */
+    private long countAllSolutions() {
+        LineSolver lineSolver = new LineSolver();
+        Tile.State[] line = new Tile.State[board.width()];
+        Arrays.fill(line, Tile.State.EMPTY);
+        long count = 0;
+        for (Clue clue : board.getRowClues()) {
+            count = Math.min(LineSolver.MAX_COUNT, count + lineSolver.countSolutions(clue, line));
+        }
+        return count;
+    }
+
+    /**
+     * Finds every possible solution of each row, then removes those which disagree with the overlaps.
+     * @param context the SolveContext of the solve, told how many solutions were found and removed
+     * @return a SolutionMatrix Object, or null if the search was stopped before every row's solutions were found
+     */
+    private SolutionMatrix filterRowSolutions(SolveContext context) {
+        SolutionMatrix rowSolutions = super.findRowSolutions(context);
+        if (rowSolutions == null) {
+            return null;
+        }
+        long found = countSolutions(rowSolutions);
+        long start = startPhase();
+        removeImpossibleSolutions(rowSolutions);
+        endPhase(SolverMetrics.Phase.FILTERING, start);
+        context.addCandidatesPruned(found - countSolutions(rowSolutions));
+        return rowSolutions;
+    }
+
+    /**
+     * Removes any solutions which are not possible based on the right-left solution for each row and column.
+     * @param possibleSolutions a SolutionMatrix Object
+     * @return the edited SolutionMatrix Object
+     */
+    protected SolutionMatrix removeImpossibleSolutions(SolutionMatrix possibleSolutions) {
+        LineSolution[] fullOverlaps = findFullOverlappingRows();
+        // go through each overlapping solution
+        for (int i = 0; i < fullOverlaps.length; i++) {
+            // if the known solution is filled somewhere a possible solution is not, the possible solution must be
+            // removed from the set
+            possibleSolutions.get(i).filter(fullOverlaps[i], new LineSolution(fullOverlaps[i].size()));
+        }
+        return possibleSolutions;
+    }
+
+    /**
+     * Gives the fully overlapped solution for each row, taking into account what was found by overlapping columns too.
+     * @return an Array of LineSolutions pertaining to the solution for each row with overlaps
+     */
+    private LineSolution[] findFullOverlappingRows() {
+        LineSolution[] colOverlaps = findAllOverlapsForRowsOrColumns(board.getColClues(),
+                board.height());
+        LineSolution[] rowOverlaps = findAllOverlapsForRowsOrColumns(board.getRowClues(),
+                board.width());
+        // fill the overlaps for each row from colOverlaps
+        for (int i = 0; i < rowOverlaps.length; i++) {
+            for (int j = 0; j < rowOverlaps[i].size(); j++) {
+                // if the Tile in the row is not guaranteed to be filled but the column overlap does, make it filled
+                // in the row too
+                if (!(rowOverlaps[i].isFilled(j)) && colOverlaps[j].isFilled(i)) {
+                    rowOverlaps[i].setFilled(j);
+                }
+            }
+        }
+        return rowOverlaps;
+    }
+
+    /**
+     * Finds the left-right overlapping solution of the left- and rightmost solutions for a given row or column.
+     * @param clue a Clue Object for the row or column
+     * @param rowColLength the size of the row or column
+     * @return a LineSolution Object
+     */
+    private LineSolution findOverlap(Clue clue, int rowColLength) {
+        int[] leftmostIndices = getLeftMostIndices(clue);
+        int[] rightmostIndices = getRightmostIndices(clue, rowColLength);
+        LineSolution overlappingSolution = new LineSolution(rowColLength);
+        for (int i = 0; i < clue.getClue().length; i++) {
+            int currentClue = clue.getClue()[i].getValue();
+            int leftExtreme = rightmostIndices[i];
+            int rightExtreme = leftmostIndices[i] + currentClue - 1;
+            for (int j = leftExtreme; j <= rightExtreme; j++) {
+                overlappingSolution.setFilled(j);
+            }
+        }
+        return overlappingSolution;
+    }
+
+    /**
+     * Gets all the right-left overlaps for each row or column from the given Clue
+     * @param clues an Array of Clue Objects
+     * @param rowColLength the length of the row or column
+     * @return an Array of the right-left overlaps for each row or column
+     */
+    private LineSolution[] findAllOverlapsForRowsOrColumns(Clue[] clues, int rowColLength) {
+        LineSolution[] allOverlaps = new LineSolution[clues.length];
+        for (int i = 0; i < clues.length; i++) {
+            // can only find overlap if the sum of the Clues is greater than half the row or column's length
+            if (sumClue(clues[i]) > rowColLength / 2) {
+                allOverlaps[i] = findOverlap(clues[i], rowColLength);
+            }
+            else allOverlaps[i] = new LineSolution(rowColLength);
+        }
+        return allOverlaps;
+    }
+
+    /**
+     * Finds the indices which correspond to the leftmost solving of this row or column.
+     * @param clue a Clue Object for the row or column
+     * @return an Array of ints corresponding to the leftmost index of each Clue
+     */
+    private int[] getLeftMostIndices(Clue clue) {
+        // stores the leftmost indices
+        int[] leftmostIndices = new int[clue.getClue().length];
+        int currentIndex = 0;
+        // go through each clue and find its index
+        for (int i = 0; i < clue.getClue().length; i++) {
+            int currentClue = clue.getClue()[i].getValue();
+            leftmostIndices[i] = currentIndex;
+            // account for at least 1 space
+            currentIndex += currentClue + 1;
+        }
+        return leftmostIndices;
+    }
+
+    /**
+     * Utility method for computing the total number of filled Tiles for a given Clue.
+     * @param clue a Clue Object
+     * @return an int corresponding to the sum of the Clue
+     */
+    private int sumClue(Clue clue) {
+        int sum = 0;
+        for (NumberValue n : clue.getClue()) {
+            sum += n.getValue();
+        }
+        return sum;
+    }
+}
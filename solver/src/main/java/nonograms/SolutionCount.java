@@ -0,0 +1,107 @@
+package nonograms;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A SolutionCount is what a BacktrackingAlgorithm found when it counted the solutions of a Board up to a limit. It
+ * holds every solution found, in the order they were found, so a Board with more than one solution comes with a
+ * second, distinct solution as a witness that it is not unique.
+ *
+ * The count is exact only if the search was exhausted, that is, it was neither stopped by its SolveLimits nor cut
+ * short by finding as many solutions as the limit.
+ *
+ * @author Ben Stone
+ */
+public class SolutionCount {
+    private SolveStatus status;
+    private List<BitGrid> solutions;
+    // whether every solution of the Board was found
+    private boolean exhausted;
+    private long elapsedNanos;
+    private long nodes;
+
+    /**
+     * Creates a SolutionCount.
+     * @param status SOLVED if any solution was found, UNSOLVABLE if the search was exhausted without finding one, or
+     * why the search was stopped otherwise
+     * @param solutions every solution found, in order
+     * @param exhausted whether the search looked at every possibility, so every solution was found
+     * @param elapsedNanos how long the count took, in nanoseconds
+     * @param nodes the number of nodes the search visited
+     */
+    public SolutionCount(SolveStatus status, List<BitGrid> solutions, boolean exhausted, long elapsedNanos,
+                         long nodes) {
+        this.status = status;
+        this.solutions = Collections.unmodifiableList(solutions);
+        this.exhausted = exhausted;
+        this.elapsedNanos = elapsedNanos;
+        this.nodes = nodes;
+    }
+
+    /**
+     * @return SOLVED if any solution was found, UNSOLVABLE if the search was exhausted without finding one, or why the
+     * search was stopped otherwise
+     */
+    public SolveStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * @return the number of solutions found
+     */
+    public int getCount() {
+        return solutions.size();
+    }
+
+    /**
+     * @return an unmodifiable List of every solution found, in the order they were found
+     */
+    public List<BitGrid> getSolutions() {
+        return solutions;
+    }
+
+    /**
+     * @return a second solution, distinct from the first, or null if fewer than two were found
+     */
+    public BitGrid getWitness() {
+        if (solutions.size() < 2) {
+            return null;
+        }
+        else return solutions.get(1);
+    }
+
+    /**
+     * @return true if every solution of the Board was found, so the count is exact
+     */
+    public boolean isExhausted() {
+        return exhausted;
+    }
+
+    /**
+     * @return true if the Board is known to have exactly one solution
+     */
+    public boolean isUnique() {
+        return exhausted && solutions.size() == 1;
+    }
+
+    /**
+     * @return how long the count took, in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return the number of nodes the search visited
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    @Override
+    public String toString() {
+        return status + " with " + solutions.size() + (exhausted ? "" : " or more") + " solutions in " +
+                elapsedNanos / 1000000f + "ms, " + nodes + " nodes";
+    }
+}
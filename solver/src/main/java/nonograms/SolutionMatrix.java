@@ -1,3 +1,5 @@
+package nonograms;
+
 import java.util.ArrayList;
 
 /**
@@ -0,0 +1,232 @@
+package nonograms;
+
+import java.util.Arrays;
+
+/**
+ * A SolutionSet is a storage of the possible LineSolution Objects for a row or column.
+ *
+ * Rather than holding a LineSolution Object for each solution, the words of every solution are packed one after the
+ * other into a single long array, so a set of hundreds of thousands of solutions is one contiguous block of memory.
+ * LineSolutions handed out by get are copies of a solution's words.
+ *
+ * A read only SolutionSet, made by readOnlyCopy, can never be changed, so it can be shared between threads and kept in
+ * a LineCandidateCache. Copying it with the copy constructor gives a SolutionSet which can be changed again.
+ *
+ * @author Ben Stone
+ */
+public class SolutionSet {
+    // the initial number of solutions room is made for
+    private static final int INITIAL_CAPACITY = 16;
+
+    // holds the words of every solution back to back
+    private long[] arena;
+    // the number of Tiles in each solution, or -1 until the first solution is added
+    private int lineSize;
+    // the number of words used by each solution
+    private int wordsPerLine;
+    // the number of solutions currently held
+    private int count;
+    // true if no solutions may be added or removed
+    private boolean readOnly;
+
+    public SolutionSet() {
+        lineSize = -1;
+        arena = new long[0];
+    }
+
+    /**
+     * Creates an empty SolutionSet for solutions of the given size.
+     * @param lineSize the number of Tiles in each solution
+     */
+    public SolutionSet(int lineSize) {
+        setLineSize(lineSize);
+        arena = new long[wordsPerLine * INITIAL_CAPACITY];
+    }
+
+    /**
+     * Creates a copy of the given SolutionSet, which can be changed even if other is read only.
+     * @param other a SolutionSet Object
+     */
+    public SolutionSet(SolutionSet other) {
+        lineSize = other.lineSize;
+        wordsPerLine = other.wordsPerLine;
+        count = other.count;
+        arena = Arrays.copyOf(other.arena, count * wordsPerLine);
+    }
+
+    /**
+     * @return a read only copy of this SolutionSet, holding no more memory than its solutions need
+     */
+    public SolutionSet readOnlyCopy() {
+        SolutionSet copy = new SolutionSet(this);
+        copy.readOnly = true;
+        return copy;
+    }
+
+    /**
+     * @return true if this SolutionSet cannot be changed
+     */
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * @return the number of longs used to hold the solutions of this SolutionSet
+     */
+    public int wordCount() {
+        return count * wordsPerLine;
+    }
+
+    /**
+     * @return the size of this SolutionSet, meaning the number of solutions it still holds.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @return the number of Tiles in each solution of this SolutionSet, or -1 if no solution has been added yet
+     */
+    public int lineSize() {
+        return lineSize;
+    }
+
+    /**
+     * Adds a new LineSolution to this SolutionSet.
+     * @param newSolution a LineSolution Object
+     * @throws IllegalArgumentException if newSolution is not the same size as the solutions already in this set
+     * @throws UnsupportedOperationException if this SolutionSet is read only
+     */
+    public void add(LineSolution newSolution) throws IllegalArgumentException, UnsupportedOperationException {
+        checkWritable();
+        if (lineSize < 0) {
+            setLineSize(newSolution.size());
+        }
+        else if (newSolution.size() != lineSize) {
+            throw new IllegalArgumentException("A solution of size " + newSolution.size() + " cannot be added to a" +
+                    " SolutionSet of size " + lineSize + "!");
+        }
+        if ((count + 1) * wordsPerLine > arena.length) {
+            arena = Arrays.copyOf(arena, Math.max(INITIAL_CAPACITY, count * 2) * wordsPerLine);
+        }
+        System.arraycopy(newSolution.getWords(), 0, arena, count * wordsPerLine, wordsPerLine);
+        count++;
+    }
+
+    /**
+     * Gets the LineSolution at the given index.
+     * @param index an int index within the SolutionSet
+     * @return a copy of the LineSolution at index
+     * @throws IndexOutOfBoundsException if index is not valid within this SolutionSet
+     */
+    public LineSolution get(int index) throws IndexOutOfBoundsException{
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException(index + " is not a valid index for this SolutionSet!");
+        }
+        return new LineSolution(lineSize, arena, index * wordsPerLine);
+    }
+
+    /**
+     * Removes the LineSolution at the given index.
+     * @param index an int index within the SolutionSet
+     * @return the LineSolution removed at index
+     * @throws IndexOutOfBoundsException if index is not valid within this SolutionSet
+     * @throws UnsupportedOperationException if this SolutionSet is read only
+     */
+    public LineSolution remove(int index) throws IndexOutOfBoundsException, UnsupportedOperationException {
+        checkWritable();
+        LineSolution removed = get(index);
+        System.arraycopy(arena, (index + 1) * wordsPerLine, arena, index * wordsPerLine,
+                (count - index - 1) * wordsPerLine);
+        count--;
+        return removed;
+    }
+
+    /**
+     * Removes every solution which is not filled wherever mustFill is filled, or which is filled anywhere mustEmpty is
+     * filled. The remaining solutions are moved down in a single pass, keeping their order.
+     * @param mustFill a LineSolution of the Tiles which must be filled
+     * @param mustEmpty a LineSolution of the Tiles which must not be filled
+     * @return the number of solutions removed
+     * @throws UnsupportedOperationException if this SolutionSet is read only
+     */
+    public int filter(LineSolution mustFill, LineSolution mustEmpty) throws UnsupportedOperationException {
+        checkWritable();
+        long[] fill = mustFill.getWords();
+        long[] empty = mustEmpty.getWords();
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            int offset = i * wordsPerLine;
+            boolean possible = true;
+            for (int w = 0; w < wordsPerLine; w++) {
+                long word = arena[offset + w];
+                if ((word & fill[w]) != fill[w] || (word & empty[w]) != 0) {
+                    possible = false;
+                    break;
+                }
+            }
+            if (possible) {
+                if (kept != i) {
+                    System.arraycopy(arena, offset, arena, kept * wordsPerLine, wordsPerLine);
+                }
+                kept++;
+            }
+        }
+        int removed = count - kept;
+        count = kept;
+        return removed;
+    }
+
+    /**
+     * @return a LineSolution filled only where every solution in this SolutionSet is filled
+     * @throws IllegalStateException if this SolutionSet is empty
+     */
+    public LineSolution intersection() throws IllegalStateException {
+        if (count == 0) {
+            throw new IllegalStateException("An empty SolutionSet has no intersection!");
+        }
+        long[] words = Arrays.copyOf(arena, wordsPerLine);
+        for (int i = 1; i < count; i++) {
+            int offset = i * wordsPerLine;
+            for (int w = 0; w < wordsPerLine; w++) {
+                words[w] &= arena[offset + w];
+            }
+        }
+        return new LineSolution(lineSize, words, 0);
+    }
+
+    /**
+     * @return a LineSolution filled wherever any solution in this SolutionSet is filled
+     * @throws IllegalStateException if this SolutionSet is empty
+     */
+    public LineSolution union() throws IllegalStateException {
+        if (count == 0) {
+            throw new IllegalStateException("An empty SolutionSet has no union!");
+        }
+        long[] words = new long[wordsPerLine];
+        for (int i = 0; i < count * wordsPerLine; i += wordsPerLine) {
+            for (int w = 0; w < wordsPerLine; w++) {
+                words[w] |= arena[i + w];
+            }
+        }
+        return new LineSolution(lineSize, words, 0);
+    }
+
+    /**
+     * @throws UnsupportedOperationException if this SolutionSet is read only
+     */
+    private void checkWritable() throws UnsupportedOperationException {
+        if (readOnly) {
+            throw new UnsupportedOperationException("A read only SolutionSet cannot be changed!");
+        }
+    }
+
+    /**
+     * Sets the size of each solution held by this SolutionSet.
+     * @param lineSize the number of Tiles in each solution
+     */
+    private void setLineSize(int lineSize) {
+        this.lineSize = lineSize;
+        wordsPerLine = LineSolution.wordsFor(lineSize);
+    }
+}
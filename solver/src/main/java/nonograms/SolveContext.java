@@ -0,0 +1,170 @@
+package nonograms;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A SolveContext keeps track of a single solve against its SolveLimits. The search calls tick at every node, and stops
+ * as soon as tick returns false. The thread which started the solve is remembered, so interrupting it stops every
+ * thread working on the search, not just itself.
+ *
+ * A SolveContext also counts the work done by the search, which finish hands back in the SolveResult and logs at the
+ * FINE level of the SolvingAlgorithm logger. Nothing is built for the log unless that level is enabled.
+ *
+ * A SolveContext may be shared by all of the threads of a parallel search.
+ *
+ * @author Ben Stone
+ */
+class SolveContext {
+    private static final Logger LOGGER = Logger.getLogger(SolvingAlgorithm.class.getName());
+
+    // the System.nanoTime the solve started at
+    private long start;
+    // the System.nanoTime the search must stop by, only used if there is a timeout
+    private long deadline;
+    private boolean hasDeadline;
+    // the number of nodes the search may visit, or 0 for no limit
+    private long nodeBudget;
+    // the thread which started the solve
+    private Thread caller;
+    // the number of nodes visited so far
+    private AtomicLong nodes;
+    private AtomicLong candidatesGenerated;
+    private AtomicLong candidatesPruned;
+    private AtomicLong propagationRounds;
+    // why the search was stopped, or null if it has not been
+    private AtomicReference<SolveStatus> stopStatus;
+
+    /**
+     * Starts keeping track of a solve on the current thread.
+     * @param limits the SolveLimits of the solve
+     */
+    SolveContext(SolveLimits limits) {
+        start = System.nanoTime();
+        hasDeadline = limits.getTimeoutNanos() > 0;
+        deadline = start + limits.getTimeoutNanos();
+        nodeBudget = limits.getNodeBudget();
+        caller = Thread.currentThread();
+        nodes = new AtomicLong();
+        candidatesGenerated = new AtomicLong();
+        candidatesPruned = new AtomicLong();
+        propagationRounds = new AtomicLong();
+        stopStatus = new AtomicReference<>();
+    }
+
+    /**
+     * Counts a node of the search, and checks whether the search may carry on.
+     * @return true if the search may visit the node, false if it must stop
+     */
+    boolean tick() {
+        if (stopStatus.get() != null) {
+            return false;
+        }
+        long visited = nodes.incrementAndGet();
+        if (caller.isInterrupted()) {
+            stop(SolveStatus.CANCELLED);
+        }
+        else if (nodeBudget > 0 && visited > nodeBudget) {
+            stop(SolveStatus.BUDGET_EXHAUSTED);
+        }
+        else if (hasDeadline && System.nanoTime() - deadline >= 0) {
+            stop(SolveStatus.TIMED_OUT);
+        }
+        return stopStatus.get() == null;
+    }
+
+    /**
+     * Checks whether the search may carry on without counting a node, for work done outside of the nodes of the
+     * search, such as generating candidates before it starts.
+     * @return true if the search may carry on, false if it must stop
+     */
+    boolean check() {
+        if (stopStatus.get() != null) {
+            return false;
+        }
+        if (caller.isInterrupted()) {
+            stop(SolveStatus.CANCELLED);
+        }
+        else if (hasDeadline && System.nanoTime() - deadline >= 0) {
+            stop(SolveStatus.TIMED_OUT);
+        }
+        return stopStatus.get() == null;
+    }
+
+    /**
+     * @param count the number of candidates the search has come up with
+     */
+    void addCandidatesGenerated(long count) {
+        candidatesGenerated.addAndGet(count);
+    }
+
+    /**
+     * @param count the number of candidates ruled out without being searched any further
+     */
+    void addCandidatesPruned(long count) {
+        candidatesPruned.addAndGet(count);
+    }
+
+    /**
+     * @param count the number of passes made over the rows and columns while propagating
+     */
+    void addPropagationRounds(long count) {
+        propagationRounds.addAndGet(count);
+    }
+
+    /**
+     * Stops the search, unless it has already been stopped for another reason.
+     * @param status why the search is being stopped
+     */
+    void stop(SolveStatus status) {
+        stopStatus.compareAndSet(null, status);
+    }
+
+    /**
+     * @return true if the search has been stopped before it was finished
+     */
+    boolean isStopped() {
+        return stopStatus.get() != null;
+    }
+
+    /**
+     * @param finished the status of the solve if the search was not stopped early
+     * @return why the search was stopped, or finished if it was not
+     */
+    SolveStatus statusOr(SolveStatus finished) {
+        SolveStatus status = stopStatus.get();
+        return status == null ? finished : status;
+    }
+
+    /**
+     * Finishes the solve, logging how it went. A solution counts even if the search was stopped as it was found.
+     * @param finished the status of the solve if the search was not stopped early
+     * @param grid the solution, or the Tiles known for certain if the Board was not solved
+     * @return a SolveResult with the status of the solve and everything counted so far
+     */
+    SolveResult finish(SolveStatus finished, BitGrid grid) {
+        SolveStatus status = finished == SolveStatus.SOLVED ? finished : statusOr(finished);
+        SolveResult result = new SolveResult(status, grid, getElapsedNanos(), nodes.get(),
+                candidatesGenerated.get(), candidatesPruned.get(), propagationRounds.get());
+        if (LOGGER.isLoggable(Level.FINE)) {
+            LOGGER.fine("Finished a " + grid.width() + "x" + grid.height() + " Board: " + result);
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of nodes visited so far
+     */
+    long getNodes() {
+        return nodes.get();
+    }
+
+    /**
+     * @return the number of nanoseconds since the solve started
+     */
+    long getElapsedNanos() {
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,52 @@
+package nonograms;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A SolveLimits bounds how long a SolvingAlgorithm may search for, by time, by the number of nodes it may visit, or
+ * both. What counts as a node depends on the algorithm, but it is always a step of the search, such as placing a row
+ * or branching on a Tile, so the budget bounds the work done however fast the machine is.
+ *
+ * @author Ben Stone
+ */
+public class SolveLimits {
+    // no limits at all, so the search runs until it is finished or the thread is interrupted
+    public static final SolveLimits NONE = new SolveLimits(0, TimeUnit.NANOSECONDS, 0);
+
+    // the time the search may take in nanoseconds, or 0 for no limit
+    private long timeoutNanos;
+    // the number of nodes the search may visit, or 0 for no limit
+    private long nodeBudget;
+
+    /**
+     * Creates a SolveLimits with the given timeout and node budget.
+     * @param timeout the time the search may take, or 0 for no limit
+     * @param unit the TimeUnit of timeout
+     * @param nodeBudget the number of nodes the search may visit, or 0 for no limit
+     * @throws IllegalArgumentException if timeout or nodeBudget is negative
+     */
+    public SolveLimits(long timeout, TimeUnit unit, long nodeBudget) throws IllegalArgumentException {
+        if (timeout < 0) {
+            throw new IllegalArgumentException("The timeout cannot be negative!");
+        }
+        if (nodeBudget < 0) {
+            throw new IllegalArgumentException("The node budget cannot be negative!");
+        }
+        this.timeoutNanos = unit.toNanos(timeout);
+        this.nodeBudget = nodeBudget;
+    }
+
+    /**
+     * @return the time the search may take in nanoseconds, or 0 for no limit
+     */
+    public long getTimeoutNanos() {
+        return timeoutNanos;
+    }
+
+    /**
+     * @return the number of nodes the search may visit, or 0 for no limit
+     */
+    public long getNodeBudget() {
+        return nodeBudget;
+    }
+}
@@ -0,0 +1,16 @@
+package nonograms;
+
+/**
+ * A SolveListener is told about the progress of a SolvingAlgorithm as it edits its Board, such as a BoardPainter which
+ * redraws the Board. Algorithms run without one when nothing needs to watch them, so they never depend on a display.
+ *
+ * @author Ben Stone
+ */
+public interface SolveListener {
+
+    /**
+     * Called whenever the SolvingAlgorithm has changed Tiles of its Board.
+     * @param board the Board being solved
+     */
+    void boardChanged(Board board);
+}
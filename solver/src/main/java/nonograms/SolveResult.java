@@ -0,0 +1,108 @@
+package nonograms;
+
+/**
+ * A SolveResult is what a SolvingAlgorithm found when it finished solving a Board, along with statistics of the work
+ * it did. Besides how the solve finished, it holds a grid of every Tile the algorithm knew for certain. For a solved
+ * Board that is the whole solution, with every other Tile slashed, while for a search that stopped early it is the
+ * Tiles which had to be filled or slashed, with the rest left empty.
+ *
+ * What counts as a node or a candidate depends on the algorithm. The brute force algorithms count every row solution
+ * tried as a node and every possible row solution as a candidate, pruning those ruled out by overlaps or rejected by
+ * the columns. The propagating algorithms count every branch of the search as both a node and a candidate, pruning
+ * those which propagation shows to be impossible.
+ *
+ * @author Ben Stone
+ */
+public class SolveResult {
+    private SolveStatus status;
+    // the solution, or the Tiles known for certain if the Board was not solved
+    private BitGrid grid;
+    private long elapsedNanos;
+    private long nodes;
+    private long candidatesGenerated;
+    private long candidatesPruned;
+    private long propagationRounds;
+
+    /**
+     * Creates a SolveResult.
+     * @param status how the solve finished
+     * @param grid the solution, or the Tiles known for certain if the Board was not solved
+     * @param elapsedNanos how long the solve took, in nanoseconds
+     * @param nodes the number of nodes the search visited
+     * @param candidatesGenerated the number of candidates the search came up with
+     * @param candidatesPruned the number of candidates ruled out without being searched any further
+     * @param propagationRounds the number of passes made over the rows and columns while propagating
+     */
+    public SolveResult(SolveStatus status, BitGrid grid, long elapsedNanos, long nodes, long candidatesGenerated,
+                       long candidatesPruned, long propagationRounds) {
+        this.status = status;
+        this.grid = grid;
+        this.elapsedNanos = elapsedNanos;
+        this.nodes = nodes;
+        this.candidatesGenerated = candidatesGenerated;
+        this.candidatesPruned = candidatesPruned;
+        this.propagationRounds = propagationRounds;
+    }
+
+    /**
+     * @return how the solve finished
+     */
+    public SolveStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * @return true if a solution was found
+     */
+    public boolean isSolved() {
+        return status == SolveStatus.SOLVED;
+    }
+
+    /**
+     * @return the solution, or the Tiles known for certain if the Board was not solved, where an empty Tile is unknown
+     */
+    public BitGrid getGrid() {
+        return grid;
+    }
+
+    /**
+     * @return how long the solve took, in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return the number of nodes the search visited
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return the number of candidates the search came up with
+     */
+    public long getCandidatesGenerated() {
+        return candidatesGenerated;
+    }
+
+    /**
+     * @return the number of candidates ruled out without being searched any further
+     */
+    public long getCandidatesPruned() {
+        return candidatesPruned;
+    }
+
+    /**
+     * @return the number of passes made over the rows and columns while propagating
+     */
+    public long getPropagationRounds() {
+        return propagationRounds;
+    }
+
+    @Override
+    public String toString() {
+        return status + " in " + elapsedNanos / 1000000f + "ms, " + nodes + " nodes, " + candidatesGenerated +
+                " candidates generated, " + candidatesPruned + " pruned, " + propagationRounds + " propagation rounds";
+    }
+}
@@ -0,0 +1,19 @@
+package nonograms;
+
+/**
+ * The ways a SolvingAlgorithm can finish solving a Board.
+ *
+ * @author Ben Stone
+ */
+public enum SolveStatus {
+    // a solution was found and written to the Board
+    SOLVED,
+    // the whole search was made, and the Board has no solution
+    UNSOLVABLE,
+    // the deadline passed before the search was finished
+    TIMED_OUT,
+    // the search went through its whole node budget before it was finished
+    BUDGET_EXHAUSTED,
+    // the solving thread was interrupted before the search was finished
+    CANCELLED
+}
@@ -0,0 +1,50 @@
+package nonograms;
+
+/**
+ * A Solver class is instantiated to solve a given Board with specified solving algorithm.
+ *
+ * @author Ben Stone
+ */
+public class Solver {
+    // where every solve is reported
+    private SolverMetrics metrics;
+
+    /**
+     * Creates a Solver which does not report its solves anywhere.
+     */
+    public Solver() {
+        this(SolverMetrics.NONE);
+    }
+
+    /**
+     * Creates a Solver which reports every solve, and has its SolvingAlgorithms report their work, into the given
+     * SolverMetrics.
+     * @param metrics a SolverMetrics Object
+     */
+    public Solver(SolverMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Solves the given Board using the given SolvingAlgorithm.
+     * @param algorithm a SolvingAlgorithm Object used to specify the algorithm used to solve the Board.
+     * @return a SolveResult with the solution and statistics of the solve
+     */
+    public SolveResult solve( SolvingAlgorithm algorithm) {
+        return solve(algorithm, SolveLimits.NONE);
+    }
+
+    /**
+     * Solves the given Board using the given SolvingAlgorithm, stopping early if the search goes past the given limits
+     * or the calling thread is interrupted.
+     * @param algorithm a SolvingAlgorithm Object used to specify the algorithm used to solve the Board.
+     * @param limits the SolveLimits of the search
+     * @return a SolveResult saying how the solve finished
+     */
+    public SolveResult solve(SolvingAlgorithm algorithm, SolveLimits limits) {
+        algorithm.setMetrics(metrics);
+        SolveResult result = algorithm.solve(limits);
+        metrics.recordSolve(result);
+        return result;
+    }
+}
@@ -0,0 +1,96 @@
+package nonograms;
+
+/**
+ * SolverMetrics is the instrumentation interface SolvingAlgorithms and the Solver report into while they work, so an
+ * implementation can see inside every solve without the algorithms knowing how the numbers are kept. It may be called
+ * from many threads at once, and from the innermost loops of a search, so an implementation must be thread-safe and
+ * cheap.
+ *
+ * NONE does nothing at all and reports itself disabled, so that the algorithms skip even reading the clock for it.
+ *
+ * @author Ben Stone
+ */
+public interface SolverMetrics {
+
+    /**
+     * The parts of a solve which are timed separately.
+     */
+    enum Phase {
+        // finding the possible solutions of each row
+        GENERATION,
+        // removing the possible solutions which cannot be part of any solution
+        FILTERING,
+        // marking the Tiles forced by the Clues before searching
+        PROPAGATION,
+        // searching through the possible solutions or branches
+        SEARCH,
+        // checking a finished Board against its Clues
+        CHECKING
+    }
+
+    // SolverMetrics which ignore everything reported to them
+    SolverMetrics NONE = new SolverMetrics() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public void addPhaseTime(Phase phase, long nanos) {}
+
+        @Override
+        public void recordLineCandidates(int candidates) {}
+
+        @Override
+        public void recordBacktrack(int depth) {}
+
+        @Override
+        public void recordCacheHit() {}
+
+        @Override
+        public void recordCacheMiss() {}
+
+        @Override
+        public void recordSolve(SolveResult result) {}
+    };
+
+    /**
+     * @return true if these SolverMetrics keep what is reported to them, false if it is thrown away
+     */
+    boolean isEnabled();
+
+    /**
+     * Adds to the time spent in a Phase of a solve.
+     * @param phase the Phase the time was spent in
+     * @param nanos the time spent, in nanoseconds
+     */
+    void addPhaseTime(Phase phase, long nanos);
+
+    /**
+     * Records the number of possible solutions found for a row or column.
+     * @param candidates the number of possible solutions of the line
+     */
+    void recordLineCandidates(int candidates);
+
+    /**
+     * Records the search giving up on a branch and going back up.
+     * @param depth how deep the search was when it went back up
+     */
+    void recordBacktrack(int depth);
+
+    /**
+     * Records a lookup which was answered from a cache.
+     */
+    void recordCacheHit();
+
+    /**
+     * Records a lookup which a cache could not answer.
+     */
+    void recordCacheMiss();
+
+    /**
+     * Records a finished solve.
+     * @param result the SolveResult of the solve
+     */
+    void recordSolve(SolveResult result);
+}
@@ -0,0 +1,90 @@
+package nonograms;
+
+/**
+ * The management interface of CountingSolverMetrics, through which a JmxMetricsExporter shows them to JMX clients
+ * such as JConsole. Every attribute is read live from the counters.
+ *
+ * @author Ben Stone
+ */
+public interface SolverMetricsMXBean {
+
+    /**
+     * @return the number of solves finished
+     */
+    long getSolves();
+
+    /**
+     * @return the number of solves which found a solution
+     */
+    long getSolved();
+
+    /**
+     * @return the number of solves stopped by their deadline or node budget, or by being cancelled
+     */
+    long getStopped();
+
+    /**
+     * @return the total number of nodes visited by every solve
+     */
+    long getNodes();
+
+    /**
+     * @return the time spent finding the possible solutions of rows, in nanoseconds
+     */
+    long getGenerationNanos();
+
+    /**
+     * @return the time spent removing impossible solutions, in nanoseconds
+     */
+    long getFilteringNanos();
+
+    /**
+     * @return the time spent propagating forced Tiles before searching, in nanoseconds
+     */
+    long getPropagationNanos();
+
+    /**
+     * @return the time spent searching, in nanoseconds
+     */
+    long getSearchNanos();
+
+    /**
+     * @return the time spent checking finished Boards, in nanoseconds
+     */
+    long getCheckingNanos();
+
+    /**
+     * @return the mean number of possible solutions found for a line
+     */
+    double getMeanLineCandidates();
+
+    /**
+     * @return the mean depth the search was at when it went back up
+     */
+    double getMeanBacktrackDepth();
+
+    /**
+     * @return the greatest depth the search was at when it went back up
+     */
+    long getMaxBacktrackDepth();
+
+    /**
+     * @return the number of lookups answered from a cache
+     */
+    long getCacheHits();
+
+    /**
+     * @return the number of lookups a cache could not answer
+     */
+    long getCacheMisses();
+
+    /**
+     * @return the fraction of lookups answered from a cache, or 0 if there have been none
+     */
+    double getCacheHitRate();
+
+    /**
+     * Sets every counter back to zero.
+     */
+    void reset();
+}
@@ -0,0 +1,30 @@
+package nonograms;
+
+/**
+ * An abstraction interface for an algorithm used to solve a Nonogram puzzle. A SolvingAlgorithm's only job is to
+ * find a/the correct solution for a given puzzle Board.
+ *
+ * @author Ben Stone
+ */
+public interface SolvingAlgorithm {
+
+    /**
+     * Solves the given Board using this SolvingAlgorithm's specific algorithm.
+     */
+    void solve();
+
+    /**
+     * Solves the given Board using this SolvingAlgorithm's specific algorithm, stopping early if the search goes past
+     * the given limits or the calling thread is interrupted. The Board is left holding the solution if one is found.
+     * @param limits the SolveLimits of the search
+     * @return a SolveResult saying how the solve finished
+     */
+    SolveResult solve(SolveLimits limits);
+
+    /**
+     * Sets the SolverMetrics this SolvingAlgorithm reports into while it solves, which are SolverMetrics.NONE unless
+     * set.
+     * @param metrics a SolverMetrics Object
+     */
+    void setMetrics(SolverMetrics metrics);
+}
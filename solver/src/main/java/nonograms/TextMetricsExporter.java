@@ -0,0 +1,52 @@
+package nonograms;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * A TextMetricsExporter writes a dump of CountingSolverMetrics as lines of name=value, one counter to a line, each
+ * time they are exported.
+ *
+ * @author Ben Stone
+ */
+public class TextMetricsExporter implements MetricsExporter {
+    private Writer out;
+
+    /**
+     * Creates a TextMetricsExporter which writes to the given Writer.
+     * @param out where the metrics are written, which is flushed but not closed after each export
+     */
+    public TextMetricsExporter(Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    public void export(CountingSolverMetrics metrics) throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (SolveStatus status : SolveStatus.values()) {
+            appendLine(text, "solves." + status.name().toLowerCase(Locale.ROOT), metrics.getSolves(status));
+        }
+        appendLine(text, "nodes", metrics.getNodes());
+        for (SolverMetrics.Phase phase : SolverMetrics.Phase.values()) {
+            appendLine(text, "phase." + phase.name().toLowerCase(Locale.ROOT) + ".nanos", metrics.getPhaseNanos(phase));
+        }
+        appendLine(text, "cache.hits", metrics.getCacheHits());
+        appendLine(text, "cache.misses", metrics.getCacheMisses());
+        appendLine(text, "cache.hitRate", String.format(Locale.ROOT, "%.4f", metrics.getCacheHitRate()));
+        appendLine(text, "lineCandidates", metrics.getLineCandidates());
+        appendLine(text, "backtrackDepth", metrics.getBacktrackDepth());
+        appendLine(text, "solveNanos", metrics.getSolveNanos());
+        out.write(text.toString());
+        out.flush();
+    }
+
+    /**
+     * @param text the StringBuilder to append to
+     * @param name the name of a counter
+     * @param value the value of the counter
+     */
+    private static void appendLine(StringBuilder text, String name, Object value) {
+        text.append(name).append('=').append(value).append('\n');
+    }
+}
@@ -0,0 +1,60 @@
+package nonograms;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Checks that a LineCandidateCache charges every entry its overhead on top of its solutions, so lines with no solutions
+ * still take room, and that it evicts the least recently used lines once it is full.
+ *
+ * @author Ben Stone
+ */
+class LineCandidateCacheTest {
+    private static final int ENTRY = LineCandidateCache.ENTRY_OVERHEAD_WORDS;
+
+    @Test
+    void chargesEmptySetsTheirOverhead() {
+        LineCandidateCache cache = new LineCandidateCache(2 * ENTRY);
+        cache.put(new Clue(new int[] {5}), 3, new SolutionSet(3));
+        assertEquals(ENTRY, cache.wordCount());
+        cache.put(new Clue(new int[] {4}), 3, new SolutionSet(3));
+        assertEquals(2 * ENTRY, cache.wordCount());
+
+        // a third empty set does not fit, however few longs its solutions hold
+        cache.put(new Clue(new int[] {6}), 3, new SolutionSet(3));
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertNull(cache.get(new Clue(new int[] {5}), 3));
+        assertNotNull(cache.get(new Clue(new int[] {6}), 3));
+    }
+
+    @Test
+    void chargesSolutionsOnTopOfTheOverhead() {
+        SolutionSet solutions = new SolutionSet(3);
+        for (int start = 0; start < 3; start++) {
+            LineSolution solution = new LineSolution(3);
+            solution.setFilled(start);
+            solutions.add(solution);
+        }
+        LineCandidateCache cache = new LineCandidateCache(ENTRY + 3);
+        cache.put(new Clue(new int[] {1}), 3, solutions);
+        assertEquals(ENTRY + 3, cache.wordCount());
+
+        // replacing the line gives back what the old solutions took
+        cache.put(new Clue(new int[] {1}), 3, new SolutionSet(3));
+        assertEquals(ENTRY, cache.wordCount());
+        assertEquals(1, cache.size());
+        assertEquals(0, cache.getEvictions());
+    }
+
+    @Test
+    void doesNotCacheWhatCannotFit() {
+        LineCandidateCache cache = new LineCandidateCache(ENTRY - 1);
+        assertNotNull(cache.put(new Clue(new int[] {5}), 3, new SolutionSet(3)));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.wordCount());
+    }
+}
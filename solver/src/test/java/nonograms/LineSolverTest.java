@@ -0,0 +1,124 @@
+package nonograms;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Checks the forced Tiles and solution counts found by a LineSolver against every fill of short lines, with Clues taken
+ * from random lines and Clues which are random numbers, and with some of the Tiles already known.
+ *
+ * @author Ben Stone
+ */
+class LineSolverTest {
+    // the number of random lines tried
+    private static final int LINES = 3000;
+    private static final Random RANDOM = new Random(5);
+
+    @Test
+    void agreesWithEveryFillOfTheLine() {
+        // one LineSolver is reused throughout, as it keeps its working storage between lines of different sizes
+        LineSolver lineSolver = new LineSolver();
+        for (int i = 0; i < LINES; i++) {
+            int length = 1 + RANDOM.nextInt(12);
+            Clue clue = RANDOM.nextInt(4) == 0 ? randomClue(length) : PuzzleGenerator.clueFor(randomLine(length));
+            Tile.State[] known = randomKnownTiles(length);
+            Tile.State[] before = known.clone();
+            List<boolean[]> solutions = TestSupport.lineSolutions(clue, known);
+            String which = clue + " on " + Arrays.toString(known);
+
+            assertEquals(solutions.size(), lineSolver.countSolutions(clue, known), which);
+            Tile.State[] forced = lineSolver.solve(clue, known);
+            if (solutions.isEmpty()) {
+                assertNull(forced, which);
+            }
+            else assertArrayEquals(expectedForced(solutions, length), forced, which);
+            assertArrayEquals(before, known, "The known Tiles of " + which + " were changed");
+        }
+    }
+
+    @Test
+    void handlesLinesWithNothingFilled() {
+        LineSolver lineSolver = new LineSolver();
+        Tile.State[] line = new Tile.State[5];
+        Arrays.fill(line, Tile.State.EMPTY);
+        Clue zero = new Clue(new int[] {0});
+
+        Tile.State[] slashed = new Tile.State[5];
+        Arrays.fill(slashed, Tile.State.SLASHED);
+        assertArrayEquals(slashed, lineSolver.solve(zero, line));
+        assertEquals(1, lineSolver.countSolutions(zero, line));
+
+        line[2] = Tile.State.FILLED;
+        assertNull(lineSolver.solve(zero, line));
+        assertEquals(0, lineSolver.countSolutions(zero, line));
+    }
+
+    /**
+     * @param solutions the filled Tiles of every solution of a line, of which there is at least one
+     * @param length the length of the line
+     * @return the state of each Tile which is the same in every solution, with every other Tile empty
+     */
+    private static Tile.State[] expectedForced(List<boolean[]> solutions, int length) {
+        Tile.State[] forced = new Tile.State[length];
+        for (int i = 0; i < length; i++) {
+            boolean alwaysFilled = true;
+            boolean neverFilled = true;
+            for (boolean[] solution : solutions) {
+                alwaysFilled &= solution[i];
+                neverFilled &= !solution[i];
+            }
+            if (alwaysFilled) {
+                forced[i] = Tile.State.FILLED;
+            }
+            else if (neverFilled) {
+                forced[i] = Tile.State.SLASHED;
+            }
+            else forced[i] = Tile.State.EMPTY;
+        }
+        return forced;
+    }
+
+    /**
+     * @param length the length of the line
+     * @return a random line, filled about half the time
+     */
+    private static boolean[] randomLine(int length) {
+        boolean[] line = new boolean[length];
+        for (int i = 0; i < length; i++) {
+            line[i] = RANDOM.nextBoolean();
+        }
+        return line;
+    }
+
+    /**
+     * @param length the length of the line
+     * @return a Clue of random numbers, which may not fit in the line at all
+     */
+    private static Clue randomClue(int length) {
+        int[] numbers = new int[1 + RANDOM.nextInt(Math.max(1, length / 2))];
+        for (int i = 0; i < numbers.length; i++) {
+            numbers[i] = 1 + RANDOM.nextInt(Math.max(1, length / numbers.length));
+        }
+        return new Clue(numbers);
+    }
+
+    /**
+     * @param length the length of the line
+     * @return a line where about a third of the Tiles are known, each filled or slashed at random
+     */
+    private static Tile.State[] randomKnownTiles(int length) {
+        Tile.State[] known = new Tile.State[length];
+        for (int i = 0; i < length; i++) {
+            int pick = RANDOM.nextInt(6);
+            known[i] = pick == 0 ? Tile.State.FILLED : pick == 1 ? Tile.State.SLASHED : Tile.State.EMPTY;
+        }
+        return known;
+    }
+}
@@ -0,0 +1,114 @@
+package nonograms;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that a SatSolver stopped by its node budget can be solved again after more clauses are added, that the
+ * solution it then finds satisfies every clause, including those added in between, and that the variable it was about
+ * to branch on when it stopped is still branched on.
+ *
+ * @author Ben Stone
+ */
+class SatSolverTest {
+    // the number of formulas tried
+    private static final int FORMULAS = 30;
+    private static final int VARIABLES = 40;
+    // enough three literal clauses to make the search branch and backtrack, while still being satisfiable
+    private static final int CLAUSES = 160;
+
+    @Test
+    void solvesAgainAfterBeingStopped() {
+        for (int seed = 0; seed < FORMULAS; seed++) {
+            Random random = new Random(seed);
+            // every clause is made true by a hidden assignment, so the formula always has a solution
+            boolean[] hidden = new boolean[VARIABLES + 1];
+            for (int v = 1; v <= VARIABLES; v++) {
+                hidden[v] = random.nextBoolean();
+            }
+            SatSolver solver = new SatSolver();
+            for (int v = 0; v < VARIABLES; v++) {
+                solver.newVariable();
+            }
+            List<int[]> clauses = new ArrayList<>();
+            for (int i = 0; i < CLAUSES; i++) {
+                addClause(solver, clauses, randomClause(random, hidden));
+            }
+
+            SolveLimits fewNodes = new SolveLimits(0, TimeUnit.NANOSECONDS, 1 + seed % 3);
+            assertEquals(SolveStatus.BUDGET_EXHAUSTED, solver.solve(fewNodes), "Formula " + seed);
+            addClause(solver, clauses, randomClause(random, hidden));
+            assertEquals(SolveStatus.SOLVED, solver.solve(SolveLimits.NONE), "Formula " + seed);
+            assertSatisfied(solver, clauses, "Formula " + seed);
+        }
+    }
+
+    @Test
+    void branchesOnTheVariableItStoppedAt() {
+        SatSolver solver = new SatSolver();
+        solver.newVariable();
+        solver.newVariable();
+        // the second decision goes over the budget, after its variable has been picked
+        assertEquals(SolveStatus.BUDGET_EXHAUSTED, solver.solve(new SolveLimits(0, TimeUnit.NANOSECONDS, 1)));
+        long decisions = solver.getDecisions();
+        assertEquals(SolveStatus.SOLVED, solver.solve(SolveLimits.NONE));
+        // neither variable is in a clause, so each has to be decided for it to be given a value
+        assertEquals(2, solver.getDecisions() - decisions);
+    }
+
+    /**
+     * @param random the Random to draw from
+     * @param hidden the assignment every clause must be satisfied by, indexed by variable
+     * @return three literals of different variables, at least one of which is true under hidden
+     */
+    private static int[] randomClause(Random random, boolean[] hidden) {
+        int[] clause = new int[3];
+        for (int i = 0; i < clause.length; i++) {
+            int variable;
+            boolean repeated;
+            do {
+                variable = 1 + random.nextInt(VARIABLES);
+                repeated = false;
+                for (int j = 0; j < i; j++) {
+                    repeated |= Math.abs(clause[j]) == variable;
+                }
+            } while (repeated);
+            clause[i] = random.nextBoolean() ? variable : -variable;
+        }
+        // make the first literal agree with the hidden assignment
+        clause[0] = hidden[Math.abs(clause[0])] ? Math.abs(clause[0]) : -Math.abs(clause[0]);
+        return clause;
+    }
+
+    /**
+     * @param solver the SatSolver to add the clause to
+     * @param clauses the clauses added so far, which the clause is added to
+     * @param clause the literals of the clause
+     */
+    private static void addClause(SatSolver solver, List<int[]> clauses, int[] clause) {
+        clauses.add(clause);
+        assertTrue(solver.addClause(clause), "A formula with a solution was found to have none");
+    }
+
+    /**
+     * @param solver a SatSolver which has just found a solution
+     * @param clauses every clause of the formula
+     * @param which what to call the formula if it fails
+     */
+    private static void assertSatisfied(SatSolver solver, List<int[]> clauses, String which) {
+        for (int[] clause : clauses) {
+            boolean satisfied = false;
+            for (int literal : clause) {
+                satisfied |= solver.value(Math.abs(literal)) == literal > 0;
+            }
+            assertTrue(satisfied, which + " has a clause broken by its solution");
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package nonograms;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the solutions counted by a BacktrackingAlgorithm and a ProbingAlgorithm, branching by each rule, against
+ * brute-force enumeration on small generated Boards, many of which have more than one solution, and some of which have
+ * none.
+ *
+ * @author Ben Stone
+ */
+class SolutionCountTest {
+    // the number of Boards of each kind tried
+    private static final int BOARDS = 40;
+    // the limits each Board is counted up to, where 1000 is more than any of the Boards have
+    private static final int[] LIMITS = {1, 2, 3, 1000};
+
+    @Test
+    void countsAgreeWithEnumeration() {
+        int multiple = 0;
+        int none = 0;
+        for (int seed = 0; seed < BOARDS; seed++) {
+            PuzzleGenerator generator = new PuzzleGenerator(2 + seed % 4, 2 + seed / 4 % 3, 0.3 + seed % 3 * 0.2,
+                    seed);
+            Board[] boards = {PuzzleGenerator.boardFor(generator.nextPicture()),
+                    TestSupport.mixedBoard(generator.nextPicture(), generator.nextPicture())};
+            for (Board board : boards) {
+                List<BitGrid> expected = TestSupport.solutions(board);
+                if (expected.size() > 1) {
+                    multiple++;
+                }
+                else if (expected.isEmpty()) {
+                    none++;
+                }
+                for (int limit : LIMITS) {
+                    for (BacktrackingAlgorithm.Branching branching : BacktrackingAlgorithm.Branching.values()) {
+                        BacktrackingAlgorithm backtracking = new BacktrackingAlgorithm(TestSupport.copyOf(board));
+                        backtracking.setBranching(branching);
+                        checkCount(expected, backtracking, limit, seed);
+                        BacktrackingAlgorithm probing = new ProbingAlgorithm(TestSupport.copyOf(board));
+                        probing.setBranching(branching);
+                        checkCount(expected, probing, limit, seed);
+                    }
+                }
+            }
+        }
+        assertTrue(multiple > 0, "Some of the Boards should have more than one solution");
+        assertTrue(none > 0, "Some of the Boards should have no solution");
+    }
+
+    @Test
+    void rejectsLimitsBelowOne() {
+        final Board board = PuzzleGenerator.boardFor(new PuzzleGenerator(3, 3, 0.5, 1).nextPicture());
+        assertThrows(IllegalArgumentException.class, new Executable() {
+            @Override
+            public void execute() {
+                new BacktrackingAlgorithm(board).countSolutions(0, SolveLimits.NONE);
+            }
+        });
+    }
+
+    /**
+     * Counts the solutions of a Board and checks the count against its enumerated solutions.
+     * @param expected every solution of the Board
+     * @param algorithm a BacktrackingAlgorithm for a copy of the Board
+     * @param limit the most solutions to count
+     * @param seed the seed the Board was made from, to tell which Board failed
+     */
+    private static void checkCount(List<BitGrid> expected, BacktrackingAlgorithm algorithm, int limit, long seed) {
+        SolutionCount count = algorithm.countSolutions(limit, SolveLimits.NONE);
+        String which = algorithm.getClass().getSimpleName() + " branching by " + algorithm.getBranching() + " up to " +
+                limit + " on the Board of seed " + seed;
+        assertEquals(Math.min(limit, expected.size()), count.getCount(), which);
+        assertEquals(expected.size() < limit, count.isExhausted(), which);
+        assertEquals(expected.size() == 1 && limit > 1, count.isUnique(), which);
+        assertEquals(expected.isEmpty() ? SolveStatus.UNSOLVABLE : SolveStatus.SOLVED, count.getStatus(), which);
+        List<BitGrid> found = count.getSolutions();
+        for (int i = 0; i < found.size(); i++) {
+            assertTrue(TestSupport.contains(expected, found.get(i)), which + " found a grid which is no solution");
+            for (int j = 0; j < i; j++) {
+                assertFalse(TestSupport.sameTiles(found.get(i), found.get(j)), which + " found a solution twice");
+            }
+        }
+        if (found.size() < 2) {
+            assertNull(count.getWitness(), which);
+        }
+        else assertTrue(TestSupport.sameTiles(found.get(1), count.getWitness()), which);
+    }
+}
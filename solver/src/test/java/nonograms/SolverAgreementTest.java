@@ -0,0 +1,80 @@
+package nonograms;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that every SolvingAlgorithm agrees with brute-force enumeration on small generated Boards, both on Boards made
+ * from a picture, which always have a solution, and on Boards mixing the Clues of two pictures, which often do not.
+ *
+ * @author Ben Stone
+ */
+class SolverAgreementTest {
+    private static final String[] ALGORITHMS = {"BruteForce", "SmartBruteForce", "ConstraintPropagation",
+            "ParallelSearch", "Backtracking", "Probing", "Sat"};
+    // the number of Boards of each kind tried
+    private static final int BOARDS = 40;
+
+    @Test
+    void solvesBoardsMadeFromPictures() {
+        for (int seed = 0; seed < BOARDS; seed++) {
+            PuzzleGenerator generator = newGenerator(seed);
+            Board board = PuzzleGenerator.boardFor(generator.nextPicture());
+            List<BitGrid> expected = TestSupport.solutions(board);
+            assertTrue(!expected.isEmpty(), "A Board made from a picture has that picture as a solution");
+            for (String algorithm : ALGORITHMS) {
+                checkAgainst(expected, algorithm, board, seed);
+            }
+        }
+    }
+
+    @Test
+    void agreesOnBoardsMixingTwoPictures() {
+        int unsolvable = 0;
+        for (int seed = 0; seed < BOARDS; seed++) {
+            PuzzleGenerator generator = newGenerator(seed);
+            Board board = TestSupport.mixedBoard(generator.nextPicture(), generator.nextPicture());
+            List<BitGrid> expected = TestSupport.solutions(board);
+            if (expected.isEmpty()) {
+                unsolvable++;
+            }
+            for (String algorithm : ALGORITHMS) {
+                checkAgainst(expected, algorithm, board, seed);
+            }
+        }
+        assertTrue(unsolvable > 0, "Some of the mixed Boards should have no solution");
+    }
+
+    /**
+     * @param seed the seed of a generator
+     * @return a PuzzleGenerator of Boards from 2x2 up to 5x4, with a density depending on the seed
+     */
+    private static PuzzleGenerator newGenerator(long seed) {
+        int width = 2 + (int) (seed % 4);
+        int height = 2 + (int) (seed / 4 % 3);
+        return new PuzzleGenerator(width, height, 0.3 + seed % 5 * 0.1, seed);
+    }
+
+    /**
+     * Solves a copy of the Board and checks that the result agrees with its enumerated solutions.
+     * @param expected every solution of the Board
+     * @param algorithm the name of a SolvingAlgorithm
+     * @param board a Board Object, which is not changed
+     * @param seed the seed the Board was made from, to tell which Board failed
+     */
+    private static void checkAgainst(List<BitGrid> expected, String algorithm, Board board, long seed) {
+        SolveResult result = BatchSolver.newAlgorithm(algorithm, TestSupport.copyOf(board)).solve(SolveLimits.NONE);
+        String which = algorithm + " on the Board of seed " + seed;
+        if (expected.isEmpty()) {
+            assertEquals(SolveStatus.UNSOLVABLE, result.getStatus(), which);
+        }
+        else {
+            assertEquals(SolveStatus.SOLVED, result.getStatus(), which);
+            assertTrue(TestSupport.contains(expected, result.getGrid()), which + " gave a grid which is no solution");
+        }
+    }
+}
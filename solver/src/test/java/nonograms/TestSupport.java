@@ -0,0 +1,167 @@
+package nonograms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * TestSupport finds the solutions of small Boards and lines by trying every way of filling their Tiles, without using
+ * any of the code under test, so the solvers can be checked against it. It also builds the Boards the tests solve.
+ *
+ * @author Ben Stone
+ */
+final class TestSupport {
+    private TestSupport() {}
+
+    /**
+     * Finds every solution of a Board by trying all of its grids, which is only feasible for a few dozen Tiles.
+     * @param board a Board Object with at most 20 Tiles
+     * @return a List of every solution, in no particular order
+     */
+    static List<BitGrid> solutions(Board board) {
+        int width = board.width();
+        int height = board.height();
+        List<BitGrid> solutions = new ArrayList<>();
+        boolean[] line = new boolean[Math.max(width, height)];
+        for (int mask = 0; mask < 1 << width * height; mask++) {
+            boolean matches = true;
+            for (int r = 0; r < height && matches; r++) {
+                for (int c = 0; c < width; c++) {
+                    line[c] = (mask >> r * width + c & 1) == 1;
+                }
+                matches = Arrays.equals(groups(line, width), board.getRowClues()[r].getGroupLengths());
+            }
+            for (int c = 0; c < width && matches; c++) {
+                for (int r = 0; r < height; r++) {
+                    line[r] = (mask >> r * width + c & 1) == 1;
+                }
+                matches = Arrays.equals(groups(line, height), board.getColClues()[c].getGroupLengths());
+            }
+            if (matches) {
+                BitGrid solution = new BitGrid(width, height);
+                for (int r = 0; r < height; r++) {
+                    for (int c = 0; c < width; c++) {
+                        if ((mask >> r * width + c & 1) == 1) {
+                            solution.fill(r, c);
+                        }
+                        else solution.slash(r, c);
+                    }
+                }
+                solutions.add(solution);
+            }
+        }
+        return solutions;
+    }
+
+    /**
+     * Finds every solution of a line's Clue which agrees with the known Tiles.
+     * @param clue a Clue Object for the line
+     * @param known the known state of each Tile in the line, where an empty Tile is not yet known
+     * @return a List of the filled Tiles of each solution
+     */
+    static List<boolean[]> lineSolutions(Clue clue, Tile.State[] known) {
+        List<boolean[]> solutions = new ArrayList<>();
+        for (int mask = 0; mask < 1 << known.length; mask++) {
+            boolean[] line = new boolean[known.length];
+            boolean agrees = true;
+            for (int i = 0; i < known.length; i++) {
+                line[i] = (mask >> i & 1) == 1;
+                if (known[i] == Tile.State.FILLED && !line[i] || known[i] == Tile.State.SLASHED && line[i]) {
+                    agrees = false;
+                }
+            }
+            if (agrees && Arrays.equals(groups(line, line.length), clue.getGroupLengths())) {
+                solutions.add(line);
+            }
+        }
+        return solutions;
+    }
+
+    /**
+     * Makes a Board whose Clues are the rows of one picture and the columns of another, which often has no solution.
+     * @param rows the picture the row Clues are taken from
+     * @param cols the picture the column Clues are taken from, of the same size as rows
+     * @return a new unsolved Board
+     */
+    static Board mixedBoard(BitGrid rows, BitGrid cols) {
+        return new Board(rows.width(), rows.height(), PuzzleGenerator.boardFor(rows).getRowClues(),
+                PuzzleGenerator.boardFor(cols).getColClues());
+    }
+
+    /**
+     * Builds a new Board with the same Clues as the given Board. The numbers of a Clue are checked off as a Board is
+     * solved, so Boards must never share Clues.
+     * @param board a Board Object
+     * @return a new unsolved Board
+     */
+    static Board copyOf(Board board) {
+        return new Board(board.width(), board.height(), copyOf(board.getRowClues()), copyOf(board.getColClues()));
+    }
+
+    /**
+     * @param clues an Array of Clues
+     * @return new Clues with the same numbers, none of which are checked
+     */
+    private static Clue[] copyOf(Clue[] clues) {
+        Clue[] copies = new Clue[clues.length];
+        for (int i = 0; i < clues.length; i++) {
+            int[] numbers = new int[clues[i].size()];
+            for (int j = 0; j < numbers.length; j++) {
+                numbers[j] = clues[i].getClue()[j].getValue();
+            }
+            copies[i] = new Clue(numbers);
+        }
+        return copies;
+    }
+
+    /**
+     * @param solutions a List of BitGrids
+     * @param grid a BitGrid of the same size as each of solutions
+     * @return true if grid fills and slashes the same Tiles as one of solutions
+     */
+    static boolean contains(List<BitGrid> solutions, BitGrid grid) {
+        for (BitGrid solution : solutions) {
+            if (sameTiles(solution, grid)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param a a BitGrid
+     * @param b a BitGrid of the same size as a
+     * @return true if a and b have the same state in every Tile
+     */
+    static boolean sameTiles(BitGrid a, BitGrid b) {
+        for (int r = 0; r < a.height(); r++) {
+            for (int c = 0; c < a.width(); c++) {
+                if (a.getState(r, c) != b.getState(r, c)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param line the filled Tiles of a line
+     * @param length the number of Tiles of line to look at
+     * @return the lengths of the groups of filled Tiles in the first length Tiles of line
+     */
+    private static int[] groups(boolean[] line, int length) {
+        int[] groups = new int[length];
+        int count = 0;
+        int run = 0;
+        for (int i = 0; i <= length; i++) {
+            if (i < length && line[i]) {
+                run++;
+            }
+            else if (run > 0) {
+                groups[count++] = run;
+                run = 0;
+            }
+        }
+        return Arrays.copyOf(groups, count);
+    }
+}
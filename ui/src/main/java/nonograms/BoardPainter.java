@@ -1,10 +1,10 @@
+package nonograms;
+
 /**
  * A BoardPainter class handles the drawing of a board to the screen. It uses an abstract Board object as its internal
  * structure.
  */
 
-import com.sun.corba.se.impl.orbutil.graph.Graph;
-
 import javax.swing.JPanel;
 import javax.swing.JFrame;
 import java.awt.*;
@@ -14,7 +14,7 @@ import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 
 
-public class BoardPainter extends JPanel implements MouseListener, KeyListener {
+public class BoardPainter extends JPanel implements MouseListener, KeyListener, SolveListener {
     private Board board;
     int tileSize, maxClues;
     boolean filling;
@@ -47,13 +47,22 @@ public class BoardPainter extends JPanel implements MouseListener, KeyListener {
         return board;
     }
 
+    /**
+     * Repaints the Board whenever a SolvingAlgorithm changes it. Swing merges repaint requests, so a fast algorithm
+     * does not flood the event dispatch thread.
+     * @param b the Board being solved
+     */
+    @Override
+    public void boardChanged(Board b) {
+        repaint();
+    }
+
     private void init(JFrame frame) {
         int width = frame.getWidth();
         int height = frame.getHeight();
-        int boardSize = board.getBoard().length;
         maxClues = findMostClues();
-        // uses the smallest dimension to determine Tile size
-        tileSize = width / (boardSize + maxClues);
+        // uses the smallest dimension to determine Tile size, so the whole Board fits in both directions
+        tileSize = Math.min(width / (board.width() + maxClues), height / (board.height() + maxClues));
         // set the font for the Board
         font = new Font("Helvetica", Font.PLAIN, tileSize / 3);
         filling = true;
@@ -150,7 +159,7 @@ public class BoardPainter extends JPanel implements MouseListener, KeyListener {
         int startCorner = maxClues * tileSize;
         for (int r = 0; r < board.getRowClues().length; r++) {
             for (int c = 0; c < board.getColClues().length; c++) {
-                Tile currentTile = board.getBoard()[r][c];
+                Tile currentTile = board.getTile(r, c);
                 // x and y coordinates of this Tiles upper left corner
                 int x = startCorner + (c * tileSize);
                 int y = startCorner + (r * tileSize);
@@ -307,7 +316,8 @@ public class BoardPainter extends JPanel implements MouseListener, KeyListener {
     @Override
     public void mouseClicked(MouseEvent e) {
         // change the tile clicked on if the click was within the board
-        if (e.getX() >= maxClues * tileSize && e.getY() >= maxClues * tileSize) {
+        if (e.getX() >= maxClues * tileSize && e.getY() >= maxClues * tileSize &&
+                e.getX() < (maxClues + board.width()) * tileSize && e.getY() < (maxClues + board.height()) * tileSize) {
             affectTile((e.getX() / tileSize) - maxClues, (e.getY() / tileSize) - maxClues, filling);
             board.checkCol((e.getX() / tileSize) - maxClues);
             board.checkRow((e.getY() / tileSize) - maxClues);
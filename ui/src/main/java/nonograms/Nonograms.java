@@ -1,3 +1,5 @@
+package nonograms;
+
 /**
  * The main class for the Nonograms program, which handles the GUI, board completion, drawing, user interaction, and
  * controls game flow.
@@ -57,8 +59,15 @@ public class Nonograms extends JFrame {
                 n.addBoard(testBoard);
                 n.setVisible(true);
 
-                Solver s = new Solver();
-                s.solve(new SmartBruteForceAlgorithm(testBoard));
+                // solve off the event dispatch thread so the Board can be repainted while it is being solved
+                final SolvingAlgorithm algorithm = new ConstraintPropagationAlgorithm(testBoard.getBoard(), testBoard);
+                new Thread(new Runnable() {
+
+                    public void run() {
+                        Solver s = new Solver();
+                        s.solve(algorithm);
+                    }
+                }).start();
             }
         });
     }